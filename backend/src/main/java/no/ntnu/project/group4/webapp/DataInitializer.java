@@ -24,12 +24,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 /**
  * A class which inserts necessary data into the database, when Spring Boot app has started.
+ *
+ * <p>The data is inserted before any other listener of the same event runs.</p>
  */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DataInitializer implements ApplicationListener<ApplicationReadyEvent> {
   @Autowired
   private RoleRepository roleRepository;
@@ -0,0 +1,88 @@
+package no.ntnu.project.group4.webapp;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import no.ntnu.project.group4.webapp.models.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * A class which normalizes the emails of the users already in the database, before the schema is
+ * updated when Spring Boot app starts.
+ *
+ * <p>Emails are stored trimmed and in lower case, and the unique constraint on them is added by
+ * the schema update. Rows stored before emails were normalized may differ only in case, which
+ * makes adding the constraint fail, so every email that is not normalized is normalized first.
+ * Emails that would then equal the email of another user are left alone and logged, as the users
+ * have to be merged by hand before the constraint can be added. Normalized emails are left alone,
+ * so this only changes anything the first time the app runs against data from before emails were
+ * normalized.</p>
+ */
+@Component
+public class EmailNormalizer {
+  @Autowired
+  private DataSource dataSource;
+
+  private final Logger logger = LoggerFactory.getLogger(EmailNormalizer.class);
+
+  /**
+   * Normalizes the email of every user whose email is not normalized and does not collide with
+   * the email of another user once normalized.
+   */
+  @PostConstruct
+  public void normalizeAll() {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+    Map<String, Integer> users = new HashMap<>();
+    List<Object[]> changes = new ArrayList<>();
+    try {
+      jdbcTemplate.query("SELECT id, email FROM user WHERE email IS NOT NULL", resultSet -> {
+        String email = resultSet.getString("email");
+        String normalizedEmail = User.normalizeEmail(email);
+        users.merge(normalizedEmail, 1, Integer::sum);
+        if (!email.equals(normalizedEmail)) {
+          changes.add(new Object[] {normalizedEmail, resultSet.getLong("id")});
+        }
+      });
+    } catch (BadSqlGrammarException e) {
+      // The table is created by the first schema update, so there are no users to normalize
+      return;
+    }
+    List<Object[]> updates = new ArrayList<>();
+    for (Object[] change : changes) {
+      if (users.get((String) change[0]) == 1) {
+        updates.add(change);
+      } else {
+        this.logger.warn("Email of user " + change[1] + " equals the email of another user when "
+                         + "normalized, merge the users so emails can be unique");
+      }
+    }
+    if (!updates.isEmpty()) {
+      jdbcTemplate.batchUpdate("UPDATE user SET email = ? WHERE id = ?", updates);
+      this.logger.info("Normalized the emails of " + updates.size() + " users");
+    }
+  }
+
+  /**
+   * Makes the entity manager factory, which updates the schema, wait for the emails to be
+   * normalized.
+   */
+  @Component
+  static class EntityManagerFactoryDependsOnEmailNormalizer
+      extends EntityManagerFactoryDependsOnPostProcessor {
+    /**
+     * Constructs an instance of the EntityManagerFactoryDependsOnEmailNormalizer class.
+     */
+    EntityManagerFactoryDependsOnEmailNormalizer() {
+      super(EmailNormalizer.class);
+    }
+  }
+}
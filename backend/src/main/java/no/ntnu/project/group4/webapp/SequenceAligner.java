@@ -0,0 +1,104 @@
+package no.ntnu.project.group4.webapp;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * A class which moves the ID sequences of all entities past the IDs already in the database, when
+ * Spring Boot app has started.
+ *
+ * <p>Entity IDs are taken from pooled sequences, so Hibernate can insert rows in JDBC batches.
+ * Databases without sequences, such as MySQL, get a one row table per sequence instead. Rows
+ * inserted while the IDs were generated by the database are not known to a new sequence, so each
+ * sequence is moved past the highest ID of its table before the app accepts requests. A sequence
+ * that is already past it is left alone, so this only changes anything the first time the app
+ * runs against data from before the sequences.</p>
+ */
+@Component
+public class SequenceAligner {
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final Logger logger = LoggerFactory.getLogger(SequenceAligner.class);
+
+  /**
+   * Aligns the sequence of every entity with a sequence generated ID.
+   */
+  @PostConstruct
+  public void alignAll() {
+    SessionFactoryImplementor sessionFactory =
+        this.entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+    sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+      if (persister.getGenerator() instanceof SequenceStyleGenerator generator
+          && persister instanceof AbstractEntityPersister entityPersister) {
+        transactionTemplate.executeWithoutResult(
+            status -> this.align(sessionFactory, entityPersister, generator));
+      }
+    });
+  }
+
+  /**
+   * Moves the sequence of the specified generator past the highest ID of the table of the
+   * specified entity persister, if it is not past it already.
+   *
+   * <p>The pooled optimizer hands out the block of IDs ending at the value read from the
+   * sequence, so the next value must be at least the highest ID plus the increment size.</p>
+   *
+   * @param sessionFactory The specified session factory
+   * @param persister      The specified entity persister
+   * @param generator      The specified generator
+   */
+  private void align(SessionFactoryImplementor sessionFactory, AbstractEntityPersister persister,
+                     SequenceStyleGenerator generator) {
+    Number maxId = (Number) this.entityManager.createNativeQuery(
+        "SELECT MAX(" + persister.getIdentifierColumnNames()[0] + ") FROM "
+        + persister.getIdentifierTableName()).getSingleResult();
+    if (maxId == null) {
+      return;
+    }
+    DatabaseStructure structure = generator.getDatabaseStructure();
+    Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+    String sequenceName = sessionFactory.getJdbcServices().getJdbcEnvironment()
+        .getQualifiedObjectNameFormatter().format(structure.getPhysicalName(), dialect);
+    long nextValue = maxId.longValue() + structure.getIncrementSize();
+    boolean moved;
+    if (structure.isPhysicalSequence()) {
+      // Reading the sequence uses up one block of IDs, which only leaves a gap
+      Number currentValue = (Number) this.entityManager.createNativeQuery(
+          dialect.getSequenceSupport().getSequenceNextValString(sequenceName)).getSingleResult();
+      moved = currentValue.longValue() < nextValue;
+      if (moved) {
+        this.entityManager.createNativeQuery(
+            "ALTER SEQUENCE " + sequenceName + " RESTART WITH " + nextValue).executeUpdate();
+      }
+    } else {
+      moved = this.entityManager.createNativeQuery(
+          "UPDATE " + sequenceName + " SET " + SequenceStyleGenerator.DEF_VALUE_COLUMN + " = ?1 "
+          + "WHERE " + SequenceStyleGenerator.DEF_VALUE_COLUMN + " < ?1")
+          .setParameter(1, nextValue)
+          .executeUpdate() > 0;
+    }
+    if (moved) {
+      this.logger.info("Moved sequence " + sequenceName + " past existing ID " + maxId);
+    }
+  }
+}
@@ -3,11 +3,13 @@ package no.ntnu.project.group4.webapp;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.ApplicationPidFileWriter;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * The WebappApplication class represents the application runner class for the application.
  */
 @SpringBootApplication
+@EnableScheduling
 public class WebappApplication {
   /**
    * Is the main starting point of the application. The operating system on the computer expects to
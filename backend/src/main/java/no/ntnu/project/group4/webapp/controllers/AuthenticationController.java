@@ -1,28 +1,43 @@
 package no.ntnu.project.group4.webapp.controllers;
 
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import no.ntnu.project.group4.webapp.dto.AuthenticationRequest;
 import no.ntnu.project.group4.webapp.dto.AuthenticationResponse;
+import no.ntnu.project.group4.webapp.dto.RefreshRequest;
 import no.ntnu.project.group4.webapp.dto.RegisterDto;
+import no.ntnu.project.group4.webapp.security.AccessUserDetails;
+import no.ntnu.project.group4.webapp.security.JwtRequestFilter;
 import no.ntnu.project.group4.webapp.security.JwtUtil;
+import no.ntnu.project.group4.webapp.security.LoginRateLimiter;
+import no.ntnu.project.group4.webapp.security.PasswordWorkPool;
 import no.ntnu.project.group4.webapp.services.AccessUserService;
+import no.ntnu.project.group4.webapp.services.RefreshTokenService;
+import no.ntnu.project.group4.webapp.services.RefreshTokenService.Rotation;
+import no.ntnu.project.group4.webapp.services.RevocationStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -42,6 +57,14 @@ public class AuthenticationController {
   private AccessUserService userService;
   @Autowired
   private JwtUtil jwtUtil;
+  @Autowired
+  private PasswordWorkPool passwordWorkPool;
+  @Autowired
+  private LoginRateLimiter loginRateLimiter;
+  @Autowired
+  private RefreshTokenService refreshTokenService;
+  @Autowired
+  private RevocationStore revocationStore;
 
   private final Logger logger = LoggerFactory.getLogger(AuthenticationController.class);
 
@@ -49,12 +72,18 @@ public class AuthenticationController {
    * Returns a HTTP response to the request requesting to authenticate the user with the specified
    * authentication request.
    *
-   * <p>The response body contains a JWT token on success or a string with an error message on
-   * error.</p>
+   * <p>The response body contains a JWT token and a refresh token on success or a string with an
+   * error message on error.</p>
+   *
+   * <p>Login attempts are rate limited per client IP address and per email before the password
+   * is checked.</p>
    *
    * @param authenticationRequest The specified authentication request
-   * @return <p>200 OK on success + JWT token</p>
+   * @param request               The request, used for the client IP address
+   * @return <p>200 OK on success + JWT token and refresh token</p>
    *         <p>401 UNAUTHORIZED if invalid email or password</p>
+   *         <p>429 TOO MANY REQUESTS if too many login attempts are made</p>
+   *         <p>503 SERVICE UNAVAILABLE if too many logins are in progress</p>
    */
 
   @Operation(
@@ -69,26 +98,169 @@ public class AuthenticationController {
       @ApiResponse(
         responseCode = "401",
         description = "Invalid email or password"
+      ),
+      @ApiResponse(
+        responseCode = "429",
+        description = "Too many login attempts, retry after the specified number of seconds"
+      ),
+      @ApiResponse(
+        responseCode = "503",
+        description = "Too many logins in progress, retry after the specified number of seconds"
       )
   })
   @PostMapping("/authenticate")
-  public ResponseEntity<?> authenticate(
+  public CompletableFuture<ResponseEntity<?>> authenticate(
       @Parameter(description = "The authentication request")
-      @RequestBody AuthenticationRequest authenticationRequest
+      @RequestBody AuthenticationRequest authenticationRequest,
+      HttpServletRequest request
   ) {
+    long retryAfterSeconds = this.loginRateLimiter.tryAcquire(request.getRemoteAddr(),
+                                                              authenticationRequest.getEmail());
+    if (retryAfterSeconds > 0) {
+      logger.error("Too many login attempts, sending error message...");
+      return CompletableFuture.completedFuture(
+          retryLater(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                     "Too many login attempts, try again later"));
+    }
     try {
-      this.authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-          authenticationRequest.getEmail(),
-          authenticationRequest.getPassword()));
+      return this.passwordWorkPool.submit(() -> this.doAuthenticate(authenticationRequest));
+    } catch (RejectedExecutionException e) {
+      logger.error("Password work pool saturated, sending error message...");
+      return CompletableFuture.completedFuture(
+          this.serviceUnavailable("Too many logins in progress, try again later"));
+    }
+  }
+
+  /**
+   * Returns a HTTP response to the specified authentication request. Runs on the password work
+   * pool, since checking the password is slow on purpose.
+   *
+   * @param authenticationRequest The specified authentication request
+   * @return <p>200 OK on success + JWT token and refresh token</p>
+   *         <p>401 UNAUTHORIZED if invalid email or password</p>
+   */
+  private ResponseEntity<?> doAuthenticate(AuthenticationRequest authenticationRequest) {
+    final AccessUserDetails userDetails;
+    try {
+      userDetails = (AccessUserDetails) this.authenticationManager.authenticate(
+          new UsernamePasswordAuthenticationToken(authenticationRequest.getEmail(),
+                                                  authenticationRequest.getPassword()))
+          .getPrincipal();
     } catch (BadCredentialsException e) {
       logger.error("Incorrect login credentials, sending error message...");
       return new ResponseEntity<>("Invalid email or password", HttpStatus.UNAUTHORIZED);
     }
-    final UserDetails userDetails = this.userService.loadUserByUsername(
-        authenticationRequest.getEmail());
     final String jwt = this.jwtUtil.generateToken(userDetails);
+    final String refreshToken = this.refreshTokenService.issue(userDetails);
     logger.info("Correct login credentials, sending JWT token...");
-    return new ResponseEntity<>(new AuthenticationResponse(jwt), HttpStatus.OK);
+    return new ResponseEntity<>(new AuthenticationResponse(jwt, refreshToken), HttpStatus.OK);
+  }
+
+  /**
+   * Returns a HTTP response to the request requesting a new JWT token with the specified refresh
+   * request.
+   *
+   * <p>The refresh token in the request is used up and replaced by the refresh token in the
+   * response. No password is checked, so the request runs on the request thread.</p>
+   *
+   * <p>The response body contains a JWT token and a refresh token on success or a string with an
+   * error message on error.</p>
+   *
+   * @param refreshRequest The specified refresh request
+   * @return <p>200 OK on success + JWT token and refresh token</p>
+   *         <p>401 UNAUTHORIZED if the refresh token is invalid, expired or used before</p>
+   */
+  @Operation(
+      summary = "Refresh JWT token",
+      description = "Issues a new JWT token and refresh token for the specified refresh token"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+        responseCode = "200",
+        description = "JWT token refreshed"
+      ),
+      @ApiResponse(
+        responseCode = "401",
+        description = "Invalid refresh token"
+      )
+  })
+  @PostMapping("/refresh")
+  public ResponseEntity<?> refresh(
+      @Parameter(description = "The refresh request")
+      @RequestBody RefreshRequest refreshRequest
+  ) {
+    ResponseEntity<?> response;
+    Optional<Rotation> rotation = Optional.empty();
+    if (refreshRequest.getRefreshToken() != null) {
+      rotation = this.refreshTokenService.rotate(refreshRequest.getRefreshToken());
+    }
+    if (rotation.isPresent()) {
+      final String jwt = this.jwtUtil.generateToken(rotation.get().principal());
+      logger.info("Valid refresh token, sending JWT token...");
+      response = new ResponseEntity<>(
+          new AuthenticationResponse(jwt, rotation.get().refreshToken()), HttpStatus.OK);
+    } else {
+      logger.error("Invalid refresh token, sending error message...");
+      response = new ResponseEntity<>("Invalid refresh token", HttpStatus.UNAUTHORIZED);
+    }
+    return response;
+  }
+
+  /**
+   * Returns a HTTP response to the request requesting to log out the user of the JWT token or the
+   * refresh token of the request.
+   *
+   * <p>If the request has a valid JWT token, it is revoked until it expires. If the request
+   * contains a refresh token, its family is revoked, whether or not the request has a valid JWT
+   * token. The refresh token is a credential itself, and the JWT token of a client logging out has
+   * often expired already.</p>
+   *
+   * <p>The response body contains an empty string on success or a string with an error message on
+   * error.</p>
+   *
+   * @param claims         The verified claims of the JWT token of the request
+   * @param refreshRequest The specified refresh request, if any
+   * @return <p>200 OK on success</p>
+   *         <p>401 UNAUTHORIZED if neither a JWT token nor a refresh token is revoked</p>
+   */
+  @Operation(
+      summary = "Log out user",
+      description = "Revokes the JWT token of the request and the specified refresh token"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+        responseCode = "200",
+        description = "User logged out"
+      ),
+      @ApiResponse(
+        responseCode = "401",
+        description = "Neither a valid JWT token nor a known refresh token"
+      )
+  })
+  @PostMapping("/logout")
+  public ResponseEntity<String> logout(
+      @Parameter(hidden = true)
+      @RequestAttribute(name = JwtRequestFilter.CLAIMS_ATTRIBUTE, required = false) Claims claims,
+      @Parameter(description = "The refresh request with the refresh token to revoke")
+      @RequestBody(required = false) RefreshRequest refreshRequest
+  ) {
+    ResponseEntity<String> response;
+    String tokenId = claims != null ? this.jwtUtil.getTokenId(claims) : null;
+    if (tokenId != null) {
+      this.revocationStore.revokeToken(tokenId, claims.getExpiration().getTime());
+    }
+    boolean refreshTokenRevoked = refreshRequest != null
+        && refreshRequest.getRefreshToken() != null
+        && this.refreshTokenService.revoke(refreshRequest.getRefreshToken());
+    if (tokenId != null || refreshTokenRevoked) {
+      logger.info("User logged out, tokens revoked...");
+      response = new ResponseEntity<>("", HttpStatus.OK);
+    } else {
+      logger.error("User not authenticated, sending error message...");
+      response = new ResponseEntity<>("Only authenticated users can log out",
+                                      HttpStatus.UNAUTHORIZED);
+    }
+    return response;
   }
 
   /**
@@ -100,6 +272,7 @@ public class AuthenticationController {
    *
    * @return <p>200 OK on success</p>
    *         <p>400 BAD REQUEST on error</p>
+   *         <p>503 SERVICE UNAVAILABLE if too many registrations are in progress</p>
    */
   @Operation(
       summary = "Register a new user",
@@ -113,13 +286,36 @@ public class AuthenticationController {
       @ApiResponse(
         responseCode = "400",
         description = "Error registering new user"
+      ),
+      @ApiResponse(
+        responseCode = "503",
+        description = "Too many registrations in progress, retry after the specified number of "
+                    + "seconds"
       )
   })
   @PostMapping("/register")
-  public ResponseEntity<String> registerProcess(
+  public CompletableFuture<ResponseEntity<String>> registerProcess(
       @Parameter(description = "The register DTO")
       @RequestBody RegisterDto registerData
   ) {
+    try {
+      return this.passwordWorkPool.submit(() -> this.doRegister(registerData));
+    } catch (RejectedExecutionException e) {
+      logger.error("Password work pool saturated, sending error message...");
+      return CompletableFuture.completedFuture(
+          this.serviceUnavailable("Too many registrations in progress, try again later"));
+    }
+  }
+
+  /**
+   * Returns a HTTP response to the specified register DTO. Runs on the password work pool, since
+   * hashing the password is slow on purpose.
+   *
+   * @param registerData The specified register DTO
+   * @return <p>200 OK on success</p>
+   *         <p>400 BAD REQUEST on error</p>
+   */
+  private ResponseEntity<String> doRegister(RegisterDto registerData) {
     ResponseEntity<String> response;
     try {
       this.userService.tryCreateNewUser(registerData.getFirstName(), registerData.getLastName(),
@@ -130,10 +326,42 @@ public class AuthenticationController {
     } catch (IOException e) {
       logger.error("Invalid register data, sending error message...");
       response = new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (DataIntegrityViolationException e) {
+      // The unique email index rejects a concurrent registration with the same email
+      logger.error("Email already used, sending error message...");
+      response = new ResponseEntity<>("Email already used", HttpStatus.BAD_REQUEST);
     }
     return response;
   }
 
+  /**
+   * Returns a 503 SERVICE UNAVAILABLE response with the specified error message and a Retry-After
+   * header.
+   *
+   * @param message The specified error message
+   * @return A 503 SERVICE UNAVAILABLE response with the specified error message
+   */
+  private ResponseEntity<String> serviceUnavailable(String message) {
+    return retryLater(HttpStatus.SERVICE_UNAVAILABLE, this.passwordWorkPool.getRetryAfterSeconds(),
+                      message);
+  }
+
+  /**
+   * Returns a response with the specified status, the specified error message and a Retry-After
+   * header with the specified number of seconds.
+   *
+   * @param status            The specified status
+   * @param retryAfterSeconds The specified number of seconds to wait before retrying
+   * @param message           The specified error message
+   * @return A response telling the client to retry later
+   */
+  private static ResponseEntity<String> retryLater(HttpStatus status, long retryAfterSeconds,
+                                                   String message) {
+    return ResponseEntity.status(status)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+        .body(message);
+  }
+
   /**
    * Returns a HTTP response to the request causing the specified HttpMessageNotReadableException.
    *
@@ -4,18 +4,24 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import no.ntnu.project.group4.webapp.dto.CarDto;
 import no.ntnu.project.group4.webapp.models.Car;
-import no.ntnu.project.group4.webapp.models.Configuration;
-import no.ntnu.project.group4.webapp.models.Provider;
 import no.ntnu.project.group4.webapp.models.User;
 import no.ntnu.project.group4.webapp.services.AccessUserService;
 import no.ntnu.project.group4.webapp.services.CarService;
+import no.ntnu.project.group4.webapp.services.CatalogCache;
+import no.ntnu.project.group4.webapp.services.CatalogSnapshot;
+import no.ntnu.project.group4.webapp.services.CatalogVersion;
+import no.ntnu.project.group4.webapp.services.CatalogView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -27,7 +33,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 /**
@@ -35,25 +43,41 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
  *
  * <p>All HTTP requests affiliated with cars are handled in this class.</p>
  */
-@CrossOrigin
+@CrossOrigin(exposedHeaders = HttpHeaders.LINK)
 @RestController
 @RequestMapping("/api/cars")
 public class CarController {
   @Autowired
   private CarService carService;
   @Autowired
+  private CatalogCache catalogCache;
+  @Autowired
+  private CatalogVersion catalogVersion;
+  @Autowired
+  private CatalogSnapshot catalogSnapshot;
+  @Autowired
   private AccessUserService userService;
 
   private final Logger logger = LoggerFactory.getLogger(CarController.class);
 
   /**
-   * Returns an iterable containing all cars. When this endpoint is requested, a HTTP 200 OK
+   * Returns a list containing all cars. When this endpoint is requested, a HTTP 200 OK
    * response will automatically be sent back.
    * 
    * <p>If user is not authenticated or user is authenticated but not admin, only providers who are
    * visible are included.</p>
    *
-   * @return 200 OK + all car data
+   * <p>Cars are sorted by ID and returned one page at a time. If there is a next page, a Link
+   * header with relation type "next" contains its URL.</p>
+   *
+   * <p>The first page of the public view is sent from a snapshot serialized and compressed once
+   * per catalog version.</p>
+   *
+   * @param after   The ID of the last car on the previous page, or null for the first page
+   * @param limit   The maximum number of cars on the page, or null for the default
+   * @param request The request, used to answer conditional requests
+   * @return <p>200 OK + car data</p>
+   *         <p>304 NOT MODIFIED if the client already has the current catalog version</p>
    */
   @Operation(
       summary = "Get all cars",
@@ -66,23 +90,33 @@ public class CarController {
       )
   })
   @GetMapping
-  public Iterable<Car> getAll() {
-    Iterable<Car> cars = this.carService.getAll();
-    User sessionUser = this.userService.getSessionUser();
-    if (sessionUser == null || (sessionUser != null && !sessionUser.isAdmin())) {
-      for (Car car : cars) {
-        for (Configuration config : car.getConfigurations()) {
-          Iterator<Provider> it = config.getProviders().iterator();
-          while (it.hasNext()) {
-            if (!it.next().isVisible()) {
-              it.remove();
-            }
-          }
-        }
-      }
+  public ResponseEntity<?> getAll(
+      @Parameter(description = "The ID of the last car on the previous page")
+      @RequestParam(required = false) Long after,
+      @Parameter(description = "The maximum number of cars on the page")
+      @RequestParam(required = false) Integer limit,
+      ServletWebRequest request
+  ) {
+    CatalogView view = this.userService.getSessionCatalogView();
+    boolean snapshot = view == CatalogView.PUBLIC && after == null && limit == null;
+    boolean gzip = snapshot
+        && ConditionalGet.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    if (ConditionalGet.notModified(request, this.catalogVersion, view, gzip)) {
+      logger.info("Car data not modified, sending not modified...");
+      return null;
     }
     logger.info("Sending all car data...");
-    return cars;
+    if (snapshot) {
+      CatalogSnapshot.Snapshot cars = this.catalogSnapshot.getPublicCars(Pagination.DEFAULT_LIMIT);
+      ResponseEntity.BodyBuilder response = Pagination.ok(cars.getNextCursor())
+          .contentType(MediaType.APPLICATION_JSON);
+      if (gzip) {
+        response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+      }
+      return response.body(gzip ? cars.getGzip() : cars.getJson());
+    }
+    return Pagination.ok(this.catalogCache.getCars(view, Pagination.cursor(after),
+                                                   Pagination.limit(limit)));
   }
 
   /**
@@ -118,22 +152,11 @@ public class CarController {
       @PathVariable Long id
   ) {
     ResponseEntity<?> response;
-    User sessionUser = this.userService.getSessionUser();
-    Optional<Car> car = this.carService.getOne(id);
+    CatalogView view = this.userService.getSessionCatalogView();
+    Optional<CarDto> car = this.catalogCache.getCar(id, view);
     if (car.isPresent()) {
-      Car existingCar = car.get();
-      if (sessionUser == null || (sessionUser != null && !sessionUser.isAdmin())) {
-        for (Configuration config : existingCar.getConfigurations()) {
-          Iterator<Provider> it = config.getProviders().iterator();
-          if (it.hasNext()) {
-            if (!it.next().isVisible()) {
-              it.remove();
-            }
-          }
-        }
-      }
       logger.info("Car found, sending car data...");
-      response = new ResponseEntity<>(existingCar, HttpStatus.OK);
+      response = new ResponseEntity<>(car.get(), HttpStatus.OK);
     } else {
       logger.error("Car not found, sending error message...");
       response = new ResponseEntity<>("Car with specified ID not found", HttpStatus.NOT_FOUND);
@@ -217,6 +240,7 @@ public class CarController {
    *         <p>401 UNAUTHORIZED if user is not authorized</p>
    *         <p>403 FORBIDDEN if user is not admin</p>
    *         <p>404 NOT FOUND if car is not found</p>
+   *         <p>409 CONFLICT if car was updated by another request</p>
    */
   @Operation(
       summary = "Update car",
@@ -242,6 +266,10 @@ public class CarController {
       @ApiResponse(
         responseCode = "404",
         description = "Car with specified ID not found"
+      ),
+      @ApiResponse(
+        responseCode = "409",
+        description = "Car with specified ID was updated by another request"
       )
   })
   @PutMapping("/{id}")
@@ -265,6 +293,10 @@ public class CarController {
       } catch (IllegalArgumentException e) {
         logger.error("Invalid car data, sending error message...");
         response = new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+      } catch (OptimisticLockingFailureException e) {
+        logger.error("Car updated by another request, sending error message...");
+        response = new ResponseEntity<>("Car with specified ID was updated by another request",
+                                        HttpStatus.CONFLICT);
       }
     } else if (sessionUser == null) {
       logger.error("User not authenticated, sending error message...");
@@ -0,0 +1,139 @@
+package no.ntnu.project.group4.webapp.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.util.Optional;
+import no.ntnu.project.group4.webapp.dto.CheckoutRequest;
+import no.ntnu.project.group4.webapp.dto.CheckoutResponse;
+import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.services.AccessUserService;
+import no.ntnu.project.group4.webapp.services.CheckoutService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The CheckoutController class represents the REST API controller class for checking out.
+ *
+ * <p>All HTTP requests affiliated with booking a rental together with its receipt are handled in
+ * this class.</p>
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/checkout")
+public class CheckoutController {
+  @Autowired
+  private CheckoutService checkoutService;
+  @Autowired
+  private AccessUserService accessUserService;
+
+  private final Logger logger = LoggerFactory.getLogger(CheckoutController.class);
+
+  /**
+   * Returns a HTTP response to the request requesting to book the provider in the period of the
+   * specified request for the user with the email in the request, and to add the receipt of it.
+   *
+   * <p>The rental and the receipt are added in one transaction, so either both are added or
+   * neither is. The total price of the receipt is computed from the price of the provider. The
+   * response body contains the generated ID of the rental and the receipt on success or a string
+   * with an error message on error.</p>
+   *
+   * @param request The specified request
+   * @return <p>201 CREATED on success + rental ID and receipt</p>
+   *         <p>400 BAD REQUEST on error</p>
+   *         <p>401 UNAUTHORIZED if user is not authenticated</p>
+   *         <p>403 FORBIDDEN if user email does not match email of rental user</p>
+   *         <p>404 NOT FOUND if user is not found</p>
+   */
+  @Operation(
+      summary = "Check out rental",
+      description = "Adds a rental of the specified provider in the specified period to the user "
+                  + "with the specified email, together with a receipt priced by the server"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+        responseCode = "201",
+        description = "Added rental and receipt + ID of rental and receipt data"
+      ),
+      @ApiResponse(
+        responseCode = "400",
+        description = "Error adding rental + error message"
+      ),
+      @ApiResponse(
+        responseCode = "401",
+        description = "Only authenticated users have access to check out rentals"
+      ),
+      @ApiResponse(
+        responseCode = "403",
+        description = "Users do not have access to check out rentals for other users"
+      ),
+      @ApiResponse(
+        responseCode = "404",
+        description = "User with specified email not found"
+      )
+  })
+  @PostMapping
+  public ResponseEntity<?> checkout(
+      @Parameter(description = "The email of the user, the provider and the period to rent")
+      @RequestBody CheckoutRequest request
+  ) {
+    ResponseEntity<?> response;
+    User sessionUser = this.accessUserService.getSessionUser();
+    if (sessionUser != null) {
+      Optional<User> user = request.getEmail() != null
+          ? this.accessUserService.getUserByEmail(request.getEmail())
+          : Optional.empty();
+      if (user.isPresent()) {
+        if (sessionUser.getEmail().equals(user.get().getEmail()) || sessionUser.isAdmin()) {
+          try {
+            CheckoutResponse checkout = this.checkoutService.checkout(user.get(), request);
+            logger.info("User found and valid rental data, sending generated ID of new rental "
+                      + "and receipt data...");
+            response = new ResponseEntity<>(checkout, HttpStatus.CREATED);
+          } catch (IllegalArgumentException e) {
+            logger.error("Invalid rental data, sending error message...");
+            response = new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+          }
+        } else {
+          logger.error("Email of user does not match email of session user, sending error "
+                     + "message...");
+          response = new ResponseEntity<>("Users do not have access to check out rentals for "
+                                        + "other users", HttpStatus.FORBIDDEN);
+        }
+      } else {
+        logger.error("User not found, sending error message...");
+        response = new ResponseEntity<>("User with specified email not found",
+                                        HttpStatus.NOT_FOUND);
+      }
+    } else {
+      logger.error("User not authenticated, sending error message...");
+      response = new ResponseEntity<>("Only authenticated users have access to check out rentals",
+                                      HttpStatus.UNAUTHORIZED);
+    }
+    return response;
+  }
+
+  /**
+   * Returns a HTTP response to the request causing the specified HttpMessageNotReadableException.
+   *
+   * @param e The specified HttpMessageNotReadableException
+   * @return 400 BAD REQUEST with an error message
+   */
+  @ExceptionHandler(HttpMessageNotReadableException.class)
+  public ResponseEntity<String> handleRequestBodyException(HttpMessageNotReadableException e) {
+    logger.error("Received checkout data could not be read, sending error message...");
+    return new ResponseEntity<>("Checkout data not supplied or contains a parameter on an invalid "
+                              + "format", HttpStatus.BAD_REQUEST);
+  }
+}
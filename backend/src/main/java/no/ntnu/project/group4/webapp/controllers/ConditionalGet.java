@@ -0,0 +1,67 @@
+package no.ntnu.project.group4.webapp.controllers;
+
+import jakarta.servlet.http.HttpServletResponse;
+import no.ntnu.project.group4.webapp.services.CatalogVersion;
+import no.ntnu.project.group4.webapp.services.CatalogView;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * The ConditionalGet class contains the shared handling of conditional requests to the catalog
+ * endpoints.
+ *
+ * <p>Catalog responses carry a strong ETag and a Last-Modified header built from the catalog
+ * version. A request with a matching If-None-Match or If-Modified-Since header is answered with
+ * 304 NOT MODIFIED before the catalog is read. The view depends on the Authorization header and
+ * some responses are compressed, so responses vary on both the Authorization and Accept-Encoding
+ * headers, and clients are told to revalidate before reusing a stored response.</p>
+ */
+final class ConditionalGet {
+  /**
+   * Constructs an instance of the ConditionalGet class. The class only has static members.
+   */
+  private ConditionalGet() {
+  }
+
+  /**
+   * Returns true if the specified Accept-Encoding header value accepts gzip or false otherwise.
+   *
+   * @param acceptEncoding The specified Accept-Encoding header value, or null if there is none
+   * @return True if the specified Accept-Encoding header value accepts gzip or false otherwise
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding != null) {
+      for (String coding : acceptEncoding.split(",")) {
+        String[] parts = coding.split(";");
+        String name = parts[0].trim();
+        if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+          return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adds the caching headers of the current version of the specified catalog view to the response
+   * of the specified request, and returns true if the client already has that version.
+   *
+   * @param request        The specified request
+   * @param catalogVersion The catalog version
+   * @param view           The specified catalog view
+   * @param gzip           True if the response will be gzip compressed
+   * @return True if the response has been set to 304 NOT MODIFIED or false otherwise
+   */
+  static boolean notModified(ServletWebRequest request, CatalogVersion catalogVersion,
+                             CatalogView view, boolean gzip) {
+    HttpServletResponse response = request.getResponse();
+    if (response != null) {
+      response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+    return request.checkNotModified(catalogVersion.getETag(view, gzip),
+                                    catalogVersion.getLastModified());
+  }
+}
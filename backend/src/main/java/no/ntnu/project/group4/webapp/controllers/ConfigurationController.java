@@ -4,18 +4,22 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import no.ntnu.project.group4.webapp.dto.ConfigurationDto;
 import no.ntnu.project.group4.webapp.models.Car;
 import no.ntnu.project.group4.webapp.models.Configuration;
-import no.ntnu.project.group4.webapp.models.Provider;
 import no.ntnu.project.group4.webapp.models.User;
 import no.ntnu.project.group4.webapp.services.AccessUserService;
 import no.ntnu.project.group4.webapp.services.CarService;
+import no.ntnu.project.group4.webapp.services.CatalogCache;
+import no.ntnu.project.group4.webapp.services.CatalogVersion;
+import no.ntnu.project.group4.webapp.services.CatalogView;
 import no.ntnu.project.group4.webapp.services.ConfigurationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -28,7 +32,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 /**
@@ -36,7 +42,7 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
  *
  * <p>All HTTP requests affiliated with configurations are handled in this class.</p>
  */
-@CrossOrigin
+@CrossOrigin(exposedHeaders = HttpHeaders.LINK)
 @RestController
 @RequestMapping("/api/configurations")
 public class ConfigurationController {
@@ -45,18 +51,30 @@ public class ConfigurationController {
   @Autowired
   private CarService carService;
   @Autowired
+  private CatalogCache catalogCache;
+  @Autowired
+  private CatalogVersion catalogVersion;
+  @Autowired
   private AccessUserService userService;
 
   private final Logger logger = LoggerFactory.getLogger(ConfigurationController.class);
 
   /**
-   * Returns an iterable containing all configurations. When this endpoint is requested, a HTTP 200
-   * OK response will automatically be sent back.
+   * Returns a list containing all configurations. When this endpoint is requested, a HTTP 200 OK
+   * response will automatically be sent back.
    *
    * <p>If user is not authenticated or user is authenticated but not admin, only providers who are
    * visible are included.</p>
    *
-   * @return 200 OK + all configuration data
+   * <p>Configurations are sorted by ID and returned one page at a time. If there is a next page, a
+   * Link header with relation type "next" contains its URL.</p>
+   *
+   * @param after   The ID of the last configuration on the previous page, or null for the first
+   *                page
+   * @param limit   The maximum number of configurations on the page, or null for the default
+   * @param request The request, used to answer conditional requests
+   * @return <p>200 OK + configuration data</p>
+   *         <p>304 NOT MODIFIED if the client already has the current catalog version</p>
    */
   @Operation(
       summary = "Get all configurations",
@@ -69,21 +87,21 @@ public class ConfigurationController {
       )
   })
   @GetMapping
-  public Iterable<Configuration> getAll() {
-    Iterable<Configuration> configurations = this.configurationService.getAll();
-    User sessionUser = this.userService.getSessionUser();
-    if (sessionUser == null || (sessionUser != null && !sessionUser.isAdmin())) {
-      for (Configuration config : configurations) {
-        Iterator<Provider> it = config.getProviders().iterator();
-        if (it.hasNext()) {
-          if (!it.next().isVisible()) {
-            it.remove();
-          }
-        }
-      }
+  public ResponseEntity<List<ConfigurationDto>> getAll(
+      @Parameter(description = "The ID of the last configuration on the previous page")
+      @RequestParam(required = false) Long after,
+      @Parameter(description = "The maximum number of configurations on the page")
+      @RequestParam(required = false) Integer limit,
+      ServletWebRequest request
+  ) {
+    CatalogView view = this.userService.getSessionCatalogView();
+    if (ConditionalGet.notModified(request, this.catalogVersion, view, false)) {
+      logger.info("Configuration data not modified, sending not modified...");
+      return null;
     }
     logger.info("Sending all configuration data...");
-    return configurations;
+    return Pagination.ok(this.catalogCache.getConfigurations(view, Pagination.cursor(after),
+                                                             Pagination.limit(limit)));
   }
 
   /**
@@ -120,20 +138,11 @@ public class ConfigurationController {
       @PathVariable Long id
   ) {
     ResponseEntity<?> response;
-    User sessionUser = this.userService.getSessionUser();
-    Optional<Configuration> configuration = this.configurationService.getOne(id);
+    CatalogView view = this.userService.getSessionCatalogView();
+    Optional<ConfigurationDto> configuration = this.catalogCache.getConfiguration(id, view);
     if (configuration.isPresent()) {
-      Configuration existingConfiguration = configuration.get();
-      if (sessionUser == null || (sessionUser != null & !sessionUser.isAdmin())) {
-        Iterator<Provider> it = existingConfiguration.getProviders().iterator();
-        if (it.hasNext()) {
-          if (!it.next().isVisible()) {
-            it.remove();
-          }
-        }
-      }
       logger.info("Configuration found, sending configuration data...");
-      response = new ResponseEntity<>(existingConfiguration, HttpStatus.OK);
+      response = new ResponseEntity<>(configuration.get(), HttpStatus.OK);
     } else {
       logger.error("Configuration not found, sending error message...");
       response = new ResponseEntity<>("Configuration with specified ID not found",
@@ -0,0 +1,118 @@
+package no.ntnu.project.group4.webapp.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * The JsonArrayExport class contains the shared handling of the export endpoints.
+ *
+ * <p>An export is written as a JSON array one row at a time while the rows are read from the
+ * database, so neither the rows nor the serialized array are ever held in memory as a whole.</p>
+ *
+ * <p>The body is written asynchronously, and an export of many rows can take longer than the
+ * default timeout of asynchronous requests. Only export requests get the longer timeout, other
+ * asynchronous requests keep the default.</p>
+ */
+final class JsonArrayExport {
+  private static final Duration TIMEOUT = Duration.ofMinutes(10);
+
+  /**
+   * Constructs an instance of the JsonArrayExport class. The class only has static members.
+   */
+  private JsonArrayExport() {
+  }
+
+  /**
+   * Returns a HTTP 200 OK response streaming every row the specified source passes to its
+   * consumer as an element of a JSON array.
+   *
+   * @param objectMapper The object mapper used to serialize the rows
+   * @param source       The specified source, passing every row to the consumer it is given
+   * @param <T>          The type of the rows
+   * @return 200 OK + the rows as a JSON array
+   */
+  static <T> ResponseEntity<StreamingResponseBody> ok(ObjectMapper objectMapper,
+                                                      Consumer<Consumer<T>> source) {
+    extendTimeout();
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(of(objectMapper, source));
+  }
+
+  /**
+   * Returns a HTTP response with the specified status and error message. Export endpoints
+   * declare a streaming body, so error messages are written as plain text the same way string
+   * bodies are elsewhere.
+   *
+   * @param status  The specified status
+   * @param message The specified error message
+   * @return The specified status + the error message
+   */
+  static ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+    byte[] body = message.getBytes(StandardCharsets.UTF_8);
+    return ResponseEntity.status(status)
+        .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+        .body(out -> out.write(body));
+  }
+
+  /**
+   * Returns a response body writing every row the specified source passes to its consumer as an
+   * element of a JSON array.
+   *
+   * @param objectMapper The object mapper used to serialize the rows
+   * @param source       The specified source, passing every row to the consumer it is given
+   * @param <T>          The type of the rows
+   * @return A response body writing the rows as a JSON array
+   */
+  private static <T> StreamingResponseBody of(ObjectMapper objectMapper,
+                                              Consumer<Consumer<T>> source) {
+    return out -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        source.accept(row -> {
+          try {
+            generator.writeObject(row);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+        generator.writeEndArray();
+      }
+    };
+  }
+
+  /**
+   * Sets the timeout of the asynchronous processing of the current request to the export timeout,
+   * once the streaming body is about to be written.
+   */
+  private static void extendTimeout() {
+    ServletRequestAttributes attributes =
+        (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+    WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(
+        JsonArrayExport.class.getName(), new CallableProcessingInterceptor() {
+          @Override
+          public <C> void beforeConcurrentHandling(NativeWebRequest request, Callable<C> task) {
+            if (request instanceof AsyncWebRequest asyncRequest) {
+              asyncRequest.setTimeout(TIMEOUT.toMillis());
+            }
+          }
+        });
+  }
+}
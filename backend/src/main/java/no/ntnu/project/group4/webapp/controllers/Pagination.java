@@ -0,0 +1,86 @@
+package no.ntnu.project.group4.webapp.controllers;
+
+import java.util.List;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+
+/**
+ * The Pagination class contains the shared handling of the keyset pagination query parameters of
+ * the list endpoints.
+ *
+ * <p>List endpoints take the optional query parameters "after" and "limit". The response body is
+ * the items of the requested page, and if there is a next page its URL is sent in a Link header
+ * with relation type "next". The URL is relative to the host, as the scheme, host and port the
+ * backend sees behind the proxy are not the ones the client uses. A request without a limit gets
+ * at most the default limit of items, so clients that need the whole list follow the Link headers
+ * until there is none.</p>
+ */
+final class Pagination {
+  static final int DEFAULT_LIMIT = 100;
+  static final int MAX_LIMIT = 500;
+
+  /**
+   * Constructs an instance of the Pagination class. The class only has static members.
+   */
+  private Pagination() {
+  }
+
+  /**
+   * Returns the cursor to read the page after, where null means the first page.
+   *
+   * @param after The specified after query parameter
+   * @return The cursor to read the page after
+   */
+  static long cursor(Long after) {
+    return after == null ? 0L : after;
+  }
+
+  /**
+   * Returns the specified limit clamped to between 1 and the maximum limit, or the default limit
+   * if no limit is specified.
+   *
+   * @param limit The specified limit query parameter
+   * @return The page size to read
+   */
+  static int limit(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_LIMIT;
+    }
+    return Math.max(1, Math.min(limit, MAX_LIMIT));
+  }
+
+  /**
+   * Returns a HTTP 200 OK response containing the items of the specified page and a Link header to
+   * the next page if there is one.
+   *
+   * @param page The specified page
+   * @param <T>  The type of the items in the page
+   * @return 200 OK + the items of the page
+   */
+  static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page) {
+    return ok(page.getNextCursor()).body(page.getItems());
+  }
+
+  /**
+   * Returns a HTTP 200 OK response builder with a Link header to the page after the specified
+   * cursor if there is one.
+   *
+   * @param nextCursor The specified cursor of the next page, or null if there is none
+   * @return 200 OK response builder
+   */
+  static ResponseEntity.BodyBuilder ok(Long nextCursor) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+    if (nextCursor != null) {
+      UriComponents next = ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("after", nextCursor)
+          .build();
+      response.header(HttpHeaders.LINK,
+                      "<" + next.getPath() + "?" + next.getQuery() + ">; rel=\"next\"");
+    }
+    return response;
+  }
+}
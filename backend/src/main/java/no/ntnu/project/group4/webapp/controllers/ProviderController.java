@@ -4,18 +4,23 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import no.ntnu.project.group4.webapp.dto.ProviderDto;
 import no.ntnu.project.group4.webapp.models.Configuration;
 import no.ntnu.project.group4.webapp.models.Provider;
 import no.ntnu.project.group4.webapp.models.User;
 import no.ntnu.project.group4.webapp.services.AccessUserService;
+import no.ntnu.project.group4.webapp.services.CatalogCache;
+import no.ntnu.project.group4.webapp.services.CatalogVersion;
+import no.ntnu.project.group4.webapp.services.CatalogView;
 import no.ntnu.project.group4.webapp.services.ConfigurationService;
 import no.ntnu.project.group4.webapp.services.ProviderService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -28,7 +33,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 /**
@@ -36,7 +43,7 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
  *
  * <p>All HTTP requests affiliated with providers are handled in this class.</p>
  */
-@CrossOrigin
+@CrossOrigin(exposedHeaders = HttpHeaders.LINK)
 @RestController
 @RequestMapping("/api/providers")
 public class ProviderController {
@@ -46,6 +53,10 @@ public class ProviderController {
   private ConfigurationService configurationService;
   @Autowired
   private AccessUserService userService;
+  @Autowired
+  private CatalogCache catalogCache;
+  @Autowired
+  private CatalogVersion catalogVersion;
 
   private final Logger logger = LoggerFactory.getLogger(ProviderController.class);
 
@@ -57,7 +68,14 @@ public class ProviderController {
    * <p>If user is not authenticated or user is authenticated but not admin, only providers who are
    * visible are included.</p>
    *
-   * @return 200 OK + all provider data
+   * <p>Providers are sorted by ID and returned one page at a time. If there is a next page, a Link
+   * header with relation type "next" contains its URL.</p>
+   *
+   * @param after   The ID of the last provider on the previous page, or null for the first page
+   * @param limit   The maximum number of providers on the page, or null for the default
+   * @param request The request, used to answer conditional requests
+   * @return <p>200 OK + provider data</p>
+   *         <p>304 NOT MODIFIED if the client already has the current catalog version</p>
    */
   @Operation(
       summary = "Get all providers",
@@ -68,23 +86,21 @@ public class ProviderController {
       description = "All provider data"
   )
   @GetMapping
-  public ResponseEntity<Set<Provider>> getAll() {
-    Iterable<Provider> providers = this.providerService.getAll();
-    User sessionUser = this.userService.getSessionUser();
-    Set<Provider> providerData = new LinkedHashSet<>();
-    if (sessionUser == null || (sessionUser != null & !sessionUser.isAdmin())) {
-      for (Provider provider : providers) {
-        if (provider.isVisible()) {
-          providerData.add(provider);
-        }
-      }
-    } else {
-      for (Provider provider : providers) {
-        providerData.add(provider);
-      }
+  public ResponseEntity<List<ProviderDto>> getAll(
+      @Parameter(description = "The ID of the last provider on the previous page")
+      @RequestParam(required = false) Long after,
+      @Parameter(description = "The maximum number of providers on the page")
+      @RequestParam(required = false) Integer limit,
+      ServletWebRequest request
+  ) {
+    CatalogView view = this.userService.getSessionCatalogView();
+    if (ConditionalGet.notModified(request, this.catalogVersion, view, false)) {
+      logger.info("Provider data not modified, sending not modified...");
+      return null;
     }
     logger.info("Sending all provider data...");
-    return new ResponseEntity<>(providerData, HttpStatus.OK);
+    return Pagination.ok(this.catalogCache.getProviders(view, Pagination.cursor(after),
+                                                        Pagination.limit(limit)));
   }
 
   /**
@@ -125,11 +141,11 @@ public class ProviderController {
       @PathVariable Long id
   ) {
     ResponseEntity<?> response;
-    User sessionUser = this.userService.getSessionUser();
-    Optional<Provider> provider = this.providerService.getOne(id);
+    CatalogView view = this.userService.getSessionCatalogView();
+    Optional<ProviderDto> provider = this.catalogCache.getProvider(id);
     if (provider.isPresent()) {
-      Provider existingProvider = provider.get();
-      if (sessionUser == null || (sessionUser != null && !sessionUser.isAdmin())) {
+      ProviderDto existingProvider = provider.get();
+      if (!view.includesHidden()) {
         if (existingProvider.isVisible()) {
           logger.info("Provider found, sending provider data...");
           response = new ResponseEntity<>(existingProvider, HttpStatus.OK);
@@ -248,6 +264,7 @@ public class ProviderController {
    *         <p>401 UNAUTHORIZED if user is not authorized</p>
    *         <p>403 FORBIDDEN if user is not admin</p>
    *         <p>404 NOT FOUND if provider is not found</p>
+   *         <p>409 CONFLICT if provider was updated by another request</p>
    */
   @Operation(
       summary = "Update provider",
@@ -273,6 +290,10 @@ public class ProviderController {
       @ApiResponse(
         responseCode = "404",
         description = "Provider with specified ID not found"
+      ),
+      @ApiResponse(
+        responseCode = "409",
+        description = "Provider with specified ID was updated by another request"
       )
   })
   @PutMapping("/{id}")
@@ -297,6 +318,10 @@ public class ProviderController {
       } catch (IllegalArgumentException e) {
         logger.error("Invalid provider data, sending error message...");
         response = new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+      } catch (OptimisticLockingFailureException e) {
+        logger.error("Provider updated by another request, sending error message...");
+        response = new ResponseEntity<>("Provider with specified ID was updated by another "
+                                      + "request", HttpStatus.CONFLICT);
       }
     } else if (sessionUser == null) {
       logger.error("User not authenticated, sending error message...");
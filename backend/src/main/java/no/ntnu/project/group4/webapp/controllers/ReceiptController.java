@@ -1,6 +1,8 @@
 package no.ntnu.project.group4.webapp.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import java.util.Optional;
@@ -10,10 +12,10 @@ import no.ntnu.project.group4.webapp.models.User;
 import no.ntnu.project.group4.webapp.services.AccessUserService;
 import no.ntnu.project.group4.webapp.services.ReceiptService;
 import no.ntnu.project.group4.webapp.services.RentalService;
-import no.ntnu.project.group4.webapp.services.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -25,15 +27,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * The ReceiptController class represents the controller class for the receipt entity.
  *
  * <p>All HTTP requests affiliated with receipts are handled in the class.</p>
  */
-@CrossOrigin
+@CrossOrigin(exposedHeaders = HttpHeaders.LINK)
 @RestController
 @RequestMapping("/api/receipts")
 public class ReceiptController {
@@ -42,9 +46,9 @@ public class ReceiptController {
   @Autowired
   private RentalService rentalService;
   @Autowired
-  private UserService userService;
-  @Autowired
   private AccessUserService accessUserService;
+  @Autowired
+  private ObjectMapper objectMapper;
 
   private final Logger logger = LoggerFactory.getLogger(ReceiptController.class);
 
@@ -54,7 +58,12 @@ public class ReceiptController {
    * <p>The response body contains all receipt data on success or a string with an error message on
    * error.</p>
    *
-   * @return <p>200 OK on success + all receipt data</p>
+   * <p>Receipts are sorted by ID and returned one page at a time. If there is a next page, a Link
+   * header with relation type "next" contains its URL.</p>
+   *
+   * @param after The ID of the last receipt on the previous page, or null for the first page
+   * @param limit The maximum number of receipts on the page, or null for the default
+   * @return <p>200 OK on success + receipt data</p>
    *         <p>401 UNAUTHORIZED if user is not authenticated</p>
    *         <p>403 FORBIDDEN if user is not admin</p>
    */
@@ -77,12 +86,18 @@ public class ReceiptController {
       )
   })
   @GetMapping
-  public ResponseEntity<?> getAll() {
+  public ResponseEntity<?> getAll(
+      @Parameter(description = "The ID of the last receipt on the previous page")
+      @RequestParam(required = false) Long after,
+      @Parameter(description = "The maximum number of receipts on the page")
+      @RequestParam(required = false) Integer limit
+  ) {
     ResponseEntity<?> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null && sessionUser.isAdmin()) {
       logger.info("Sending all receipt data...");
-      response = new ResponseEntity<>(this.receiptService.getAll(), HttpStatus.OK);
+      response = Pagination.ok(this.receiptService.getPage(Pagination.cursor(after),
+                                                           Pagination.limit(limit)));
     } else if (sessionUser == null) {
       logger.error("User not authenticated, sending error message...");
       response = new ResponseEntity<>("Only authenticated users have access to all receipt data",
@@ -95,6 +110,54 @@ public class ReceiptController {
     return response;
   }
 
+  /**
+   * Returns a HTTP response to the request requesting to export all receipts.
+   *
+   * <p>The response body contains a JSON array of all receipts on success or a string with an
+   * error message on error. The array is streamed while the receipts are read from the database,
+   * so the size of the export is not limited by memory.</p>
+   *
+   * @return <p>200 OK on success + receipt export data</p>
+   *         <p>401 UNAUTHORIZED if user is not authenticated</p>
+   *         <p>403 FORBIDDEN if user is not admin</p>
+   */
+  @Operation(
+      summary = "Export all receipts",
+      description = "Streams all receipts as a JSON array"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Receipt export data"
+      ),
+      @ApiResponse(
+        responseCode = "401",
+        description = "Only authenticated users have access to all receipt data"
+      ),
+      @ApiResponse(
+        responseCode = "403",
+        description = "Only admin users have access to all receipt data"
+      )
+  })
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export() {
+    ResponseEntity<StreamingResponseBody> response;
+    User sessionUser = this.accessUserService.getSessionUser();
+    if (sessionUser != null && sessionUser.isAdmin()) {
+      logger.info("Streaming receipt export data...");
+      response = JsonArrayExport.ok(this.objectMapper, this.receiptService::exportAll);
+    } else if (sessionUser == null) {
+      logger.error("User not authenticated, sending error message...");
+      response = JsonArrayExport.error(HttpStatus.UNAUTHORIZED,
+                                       "Only authenticated users have access to all receipt data");
+    } else {
+      logger.error("User not admin, sending error message...");
+      response = JsonArrayExport.error(HttpStatus.FORBIDDEN,
+                                       "Only admin users have access to all receipt data");
+    }
+    return response;
+  }
+
   /**
    * Returns a HTTP response to the request requesting to get the receipt with the specified ID.
    *
@@ -210,7 +273,7 @@ public class ReceiptController {
     ResponseEntity<?> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null) {
-      Optional<User> user = this.userService.getOneByEmail(email);
+      Optional<User> user = this.accessUserService.getUserByEmail(email);
       Optional<Rental> rental = this.rentalService.getOne(rentalId);
       if (user.isPresent() && rental.isPresent()) {
         Rental existingRental = rental.get();
@@ -1,20 +1,24 @@
 package no.ntnu.project.group4.webapp.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.util.List;
 import java.util.Optional;
+import no.ntnu.project.group4.webapp.dto.RentalBatchDto;
 import no.ntnu.project.group4.webapp.models.Provider;
 import no.ntnu.project.group4.webapp.models.Rental;
 import no.ntnu.project.group4.webapp.models.User;
 import no.ntnu.project.group4.webapp.services.AccessUserService;
 import no.ntnu.project.group4.webapp.services.ProviderService;
 import no.ntnu.project.group4.webapp.services.RentalService;
-import no.ntnu.project.group4.webapp.services.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -24,17 +28,20 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * The RentalController class represents the REST API controller class for rentals.
  *
  * <p>All HTTP requests affiliated with rentals are handled in this class.</p>
  */
-@CrossOrigin
+@CrossOrigin(exposedHeaders = HttpHeaders.LINK)
 @RestController
 @RequestMapping("/api/rentals")
 public class RentalController {
@@ -45,7 +52,7 @@ public class RentalController {
   @Autowired
   private AccessUserService accessUserService;
   @Autowired
-  private UserService userService;
+  private ObjectMapper objectMapper;
 
   private final Logger logger = LoggerFactory.getLogger(RentalController.class);
 
@@ -55,7 +62,12 @@ public class RentalController {
    * <p>The response body contains rental data on success or a string with an error message on
    * error.</p>
    *
-   * @return <p>200 OK on success + all rental data</p>
+   * <p>Rentals are sorted by ID and returned one page at a time. If there is a next page, a Link
+   * header with relation type "next" contains its URL.</p>
+   *
+   * @param after The ID of the last rental on the previous page, or null for the first page
+   * @param limit The maximum number of rentals on the page, or null for the default
+   * @return <p>200 OK on success + rental data</p>
    *         <p>401 UNAUTHORIZED if user is not authenticated</p>
    *         <p>403 FORBIDDEN if user is not admin</p>
    */
@@ -78,12 +90,18 @@ public class RentalController {
       )
   })
   @GetMapping
-  public ResponseEntity<?> getAll() {
+  public ResponseEntity<?> getAll(
+      @Parameter(description = "The ID of the last rental on the previous page")
+      @RequestParam(required = false) Long after,
+      @Parameter(description = "The maximum number of rentals on the page")
+      @RequestParam(required = false) Integer limit
+  ) {
     ResponseEntity<?> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null && sessionUser.isAdmin()) {
       logger.info("Sending all rental data...");
-      response = new ResponseEntity<>(this.rentalService.getAll(), HttpStatus.OK);
+      response = Pagination.ok(this.rentalService.getPage(Pagination.cursor(after),
+                                                          Pagination.limit(limit)));
     } else if (sessionUser == null) {
       logger.error("User not authenticated, sending error message...");
       response = new ResponseEntity<>("Only authenticated users have access to rental data",
@@ -96,6 +114,54 @@ public class RentalController {
     return response;
   }
 
+  /**
+   * Returns a HTTP response to the request requesting to export all rentals.
+   *
+   * <p>The response body contains a JSON array of all rentals on success or a string with an
+   * error message on error. The array is streamed while the rentals are read from the database,
+   * so the size of the export is not limited by memory.</p>
+   *
+   * @return <p>200 OK on success + rental export data</p>
+   *         <p>401 UNAUTHORIZED if user is not authenticated</p>
+   *         <p>403 FORBIDDEN if user is not admin</p>
+   */
+  @Operation(
+      summary = "Export all rentals",
+      description = "Streams all rentals as a JSON array"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Rental export data"
+      ),
+      @ApiResponse(
+        responseCode = "401",
+        description = "Only authenticated users have access to rental data"
+      ),
+      @ApiResponse(
+        responseCode = "403",
+        description = "Only admin users have access to rental data"
+      )
+  })
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export() {
+    ResponseEntity<StreamingResponseBody> response;
+    User sessionUser = this.accessUserService.getSessionUser();
+    if (sessionUser != null && sessionUser.isAdmin()) {
+      logger.info("Streaming rental export data...");
+      response = JsonArrayExport.ok(this.objectMapper, this.rentalService::exportAll);
+    } else if (sessionUser == null) {
+      logger.error("User not authenticated, sending error message...");
+      response = JsonArrayExport.error(HttpStatus.UNAUTHORIZED,
+                                       "Only authenticated users have access to rental data");
+    } else {
+      logger.error("User not admin, sending error message...");
+      response = JsonArrayExport.error(HttpStatus.FORBIDDEN,
+                                       "Only admin users have access to rental data");
+    }
+    return response;
+  }
+
   /**
    * Returns a HTTP response to the request requesting to get the rental with the specified ID.
    *
@@ -219,7 +285,7 @@ public class RentalController {
     ResponseEntity<?> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null) {
-      Optional<User> user = this.userService.getOneByEmail(email);
+      Optional<User> user = this.accessUserService.getUserByEmail(email);
       Optional<Provider> provider = this.providerService.getOne(providerId);
       if (user.isPresent() && provider.isPresent()) {
         if (sessionUser.getEmail().equals(user.get().getEmail()) || sessionUser.isAdmin()) {
@@ -257,6 +323,189 @@ public class RentalController {
     return response;
   }
 
+  /**
+   * Returns a HTTP response to the request requesting to add a batch of rentals to the user with
+   * the email in the specified batch.
+   *
+   * <p>The rentals are added in one transaction, so either all of them are added or none are. The
+   * response body contains the generated IDs of the rentals, in the order of the batch, on
+   * success or a string with an error message on error.</p>
+   *
+   * @param batch The specified batch
+   * @return <p>201 CREATED on success + IDs</p>
+   *         <p>400 BAD REQUEST on error</p>
+   *         <p>401 UNAUTHORIZED if user is not authenticated</p>
+   *         <p>403 FORBIDDEN if user email does not match email of rental user</p>
+   *         <p>404 NOT FOUND if user is not found</p>
+   */
+  @Operation(
+      summary = "Add batch of rentals",
+      description = "Adds all rentals in the specified batch to the user with the email in the "
+                  + "batch, or none of them if any rental cannot be added"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+        responseCode = "201",
+        description = "Added rentals + IDs of rentals"
+      ),
+      @ApiResponse(
+        responseCode = "400",
+        description = "Error adding rentals + error message"
+      ),
+      @ApiResponse(
+        responseCode = "401",
+        description = "Only authenticated users have access to add rentals"
+      ),
+      @ApiResponse(
+        responseCode = "403",
+        description = "Users do not have access to add rental data of other users"
+      ),
+      @ApiResponse(
+        responseCode = "404",
+        description = "User with specified email not found"
+      )
+  })
+  @PostMapping("/batch")
+  public ResponseEntity<?> addBatch(
+      @Parameter(description = "The email of the user and the rentals to add")
+      @RequestBody RentalBatchDto batch
+  ) {
+    ResponseEntity<?> response;
+    User sessionUser = this.accessUserService.getSessionUser();
+    if (sessionUser != null) {
+      Optional<User> user = batch.getEmail() != null
+          ? this.accessUserService.getUserByEmail(batch.getEmail())
+          : Optional.empty();
+      if (user.isPresent()) {
+        if (sessionUser.getEmail().equals(user.get().getEmail()) || sessionUser.isAdmin()) {
+          try {
+            List<Long> ids = this.rentalService.addAll(user.get(), batch.getRentals());
+            logger.info("User found and valid rental data, sending generated IDs of new "
+                      + "rentals...");
+            response = new ResponseEntity<>(ids, HttpStatus.CREATED);
+          } catch (IllegalArgumentException e) {
+            logger.error("Invalid rental data, sending error message...");
+            response = new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+          }
+        } else {
+          logger.error("Email of user does not match email of session user, sending error "
+                     + "message...");
+          response = new ResponseEntity<>("Users do not have access to add rental data of other "
+                                        + "users", HttpStatus.FORBIDDEN);
+        }
+      } else {
+        logger.error("User not found, sending error message...");
+        response = new ResponseEntity<>("User with specified email not found",
+                                        HttpStatus.NOT_FOUND);
+      }
+    } else {
+      logger.error("User not authenticated, sending error message...");
+      response = new ResponseEntity<>("Only authenticated users have access to add rentals",
+                                      HttpStatus.UNAUTHORIZED);
+    }
+    return response;
+  }
+
+  /**
+   * Returns a HTTP response to the request requesting to update the period of the rental with the
+   * specified ID with the period of the specified rental.
+   *
+   * <p>The response body contains an empty string on success or a string with an error message on
+   * error.</p>
+   *
+   * <p>If the specified rental has a version, the rental is only updated if it still has that
+   * version.</p>
+   *
+   * @param id     The specified ID
+   * @param rental The specified rental
+   * @return <p>200 OK on success</p>
+   *         <p>400 BAD REQUEST on error</p>
+   *         <p>401 UNAUTHORIZED if user is not authenticated</p>
+   *         <p>403 FORBIDDEN if user email does not match email of rental user</p>
+   *         <p>404 NOT FOUND if rental is not found</p>
+   *         <p>409 CONFLICT if rental was updated by another request</p>
+   */
+  @Operation(
+      summary = "Update rental",
+      description = "Updates the period of the rental with the specified ID with the period of the "
+                  + "specified rental"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Rental was updated"
+      ),
+      @ApiResponse(
+        responseCode = "400",
+        description = "Error updating rental + error message"
+      ),
+      @ApiResponse(
+        responseCode = "401",
+        description = "Only authenticated users have access to update rentals"
+      ),
+      @ApiResponse(
+        responseCode = "403",
+        description = "Users do not have access to update rentals of other users"
+      ),
+      @ApiResponse(
+        responseCode = "404",
+        description = "Rental with specified ID not found"
+      ),
+      @ApiResponse(
+        responseCode = "409",
+        description = "Rental with specified ID was updated by another request"
+      )
+  })
+  @PutMapping("/{id}")
+  public ResponseEntity<String> update(
+      @Parameter(description = "The ID of the rental to update")
+      @PathVariable Long id,
+      @Parameter(description = "The rental to update the existing rental with")
+      @RequestBody Rental rental
+  ) {
+    ResponseEntity<String> response;
+    User sessionUser = this.accessUserService.getSessionUser();
+    if (sessionUser != null) {
+      Optional<Rental> existingRental = this.rentalService.getOne(id);
+      if (existingRental.isPresent()) {
+        if (sessionUser.getEmail().equals(existingRental.get().getUser().getEmail())
+            || sessionUser.isAdmin()) {
+          try {
+            if (this.rentalService.update(id, rental)) {
+              logger.info("Rental found and valid rental data, updating rental...");
+              response = new ResponseEntity<>("", HttpStatus.OK);
+            } else {
+              logger.error("Rental not found, sending error message...");
+              response = new ResponseEntity<>("Rental with specified ID not found",
+                                              HttpStatus.NOT_FOUND);
+            }
+          } catch (IllegalArgumentException e) {
+            logger.error("Invalid rental data, sending error message...");
+            response = new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+          } catch (OptimisticLockingFailureException e) {
+            logger.error("Rental updated by another request, sending error message...");
+            response = new ResponseEntity<>("Rental with specified ID was updated by another "
+                                          + "request", HttpStatus.CONFLICT);
+          }
+        } else {
+          logger.error("Email of rental user does not match email of session user, sending "
+                     + "error message...");
+          response = new ResponseEntity<>("Users do not have access to update rentals of other "
+                                        + "users", HttpStatus.FORBIDDEN);
+        }
+      } else {
+        logger.error("Rental not found, sending error message...");
+        response = new ResponseEntity<>("Rental with specified ID not found",
+                                        HttpStatus.NOT_FOUND);
+      }
+    } else {
+      logger.error("User not authenticated, sending error message...");
+      response = new ResponseEntity<>("Only authenticated users have access to update rentals",
+                                      HttpStatus.UNAUTHORIZED);
+    }
+    return response;
+  }
+
   /**
    * Returns a HTTP response to the request requesting to delete the rental with the specified ID.
    *
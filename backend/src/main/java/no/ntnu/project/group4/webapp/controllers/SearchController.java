@@ -0,0 +1,129 @@
+package no.ntnu.project.group4.webapp.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.util.List;
+import no.ntnu.project.group4.webapp.dto.ProviderOfferDto;
+import no.ntnu.project.group4.webapp.services.ProviderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+/**
+ * The SearchController class represents the REST API controller class for searching.
+ *
+ * <p>All HTTP requests affiliated with searching for bookable providers are handled in this
+ * class.</p>
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+  @Autowired
+  private ProviderService providerService;
+
+  private final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+  /**
+   * Returns a HTTP response to the request requesting to search for providers that can be booked
+   * in the specified period.
+   *
+   * <p>The response body contains offer data on success or a string with an error message on
+   * error.</p>
+   *
+   * <p>Only providers who are visible and available, and who have no rental overlapping the
+   * specified period, are included.</p>
+   *
+   * @param from     The specified long value for the start date
+   * @param to       The specified long value for the end date
+   * @param location The specified location
+   * @param minPrice The specified minimum price
+   * @param maxPrice The specified maximum price
+   * @param seats    The specified minimum number of seats
+   * @return <p>200 OK on success + offer data</p>
+   *         <p>400 BAD REQUEST if the specified period is invalid</p>
+   */
+  @Operation(
+      summary = "Search for bookable providers",
+      description = "Gets offers for all providers matching the specified filters that can be "
+                  + "booked in the specified period"
+  )
+  @ApiResponses(value = {
+      @ApiResponse(
+        responseCode = "200",
+        description = "Offer data"
+      ),
+      @ApiResponse(
+        responseCode = "400",
+        description = "Search period is invalid"
+      )
+  })
+  @GetMapping
+  public ResponseEntity<?> search(
+      @Parameter(description = "Start of the rental period in milliseconds since epoch")
+      @RequestParam long from,
+      @Parameter(description = "End of the rental period in milliseconds since epoch")
+      @RequestParam long to,
+      @Parameter(description = "Location of the provider")
+      @RequestParam(required = false) String location,
+      @Parameter(description = "Minimum price")
+      @RequestParam(required = false) Integer minPrice,
+      @Parameter(description = "Maximum price")
+      @RequestParam(required = false) Integer maxPrice,
+      @Parameter(description = "Minimum number of seats")
+      @RequestParam(required = false) Integer seats
+  ) {
+    ResponseEntity<?> response;
+    try {
+      List<ProviderOfferDto> offers = this.providerService.getAvailableOffers(
+          from, to, location, minPrice, maxPrice, seats);
+      logger.info("Valid search, sending offer data...");
+      response = new ResponseEntity<>(offers, HttpStatus.OK);
+    } catch (IllegalArgumentException e) {
+      logger.error("Invalid search period, sending error message...");
+      response = new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+    return response;
+  }
+
+  /**
+   * Returns a HTTP response to the request causing the specified
+   * MethodArgumentTypeMismatchException.
+   *
+   * @param e The specified MethodArgumentTypeMismatchException
+   * @return 400 BAD REQUEST with an error message
+   */
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  public ResponseEntity<String> handleRequestParamException(
+      MethodArgumentTypeMismatchException e) {
+    logger.error("Received HTTP request could not be read, sending error message...");
+    return new ResponseEntity<>("HTTP request contains a value on an invalid format",
+                                HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Returns a HTTP response to the request causing the specified
+   * MissingServletRequestParameterException.
+   *
+   * @param e The specified MissingServletRequestParameterException
+   * @return 400 BAD REQUEST with an error message
+   */
+  @ExceptionHandler(MissingServletRequestParameterException.class)
+  public ResponseEntity<String> handleMissingParamException(
+      MissingServletRequestParameterException e) {
+    logger.error("Received HTTP request is missing a parameter, sending error message...");
+    return new ResponseEntity<>("Search period not supplied", HttpStatus.BAD_REQUEST);
+  }
+}
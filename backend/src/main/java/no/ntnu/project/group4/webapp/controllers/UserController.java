@@ -4,22 +4,22 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import java.util.LinkedHashSet;
 import java.util.Optional;
-import java.util.Set;
 import no.ntnu.project.group4.webapp.dto.AuthenticationResponse;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
 import no.ntnu.project.group4.webapp.dto.UserDto;
 import no.ntnu.project.group4.webapp.dto.UserUpdateDto;
 import no.ntnu.project.group4.webapp.dto.UserUpdatePasswordDto;
-import no.ntnu.project.group4.webapp.models.Provider;
 import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.security.AccessUserDetails;
 import no.ntnu.project.group4.webapp.security.JwtUtil;
 import no.ntnu.project.group4.webapp.services.AccessUserService;
-import no.ntnu.project.group4.webapp.services.ProviderService;
+import no.ntnu.project.group4.webapp.services.RefreshTokenService;
 import no.ntnu.project.group4.webapp.services.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -32,6 +32,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
@@ -40,7 +41,7 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
  *
  * <p>All HTTP requests affiliated with users are handled in this class.</p>
  */
-@CrossOrigin
+@CrossOrigin(exposedHeaders = HttpHeaders.LINK)
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
@@ -49,9 +50,9 @@ public class UserController {
   @Autowired
   private UserService userService;
   @Autowired
-  private ProviderService providerService;
-  @Autowired
   private JwtUtil jwtUtil;
+  @Autowired
+  private RefreshTokenService refreshTokenService;
 
   private final Logger logger = LoggerFactory.getLogger(UserController.class);
 
@@ -61,7 +62,12 @@ public class UserController {
    * <p>The response body contains user data on success or a string with an error message on
    * error.</p>
    *
-   * @return <p>200 OK on success + all user data</p>
+   * <p>Users are sorted by ID and returned one page at a time. If there is a next page, a Link
+   * header with relation type "next" contains its URL.</p>
+   *
+   * @param after The ID of the last user on the previous page, or null for the first page
+   * @param limit The maximum number of users on the page, or null for the default
+   * @return <p>200 OK on success + user data</p>
    *         <p>401 UNAUTHORIZED if user is not authenticated</p>
    *         <p>403 FORBIDDEN if user is not admin</p>
    */
@@ -84,22 +90,19 @@ public class UserController {
       )
   })
   @GetMapping
-  public ResponseEntity<?> getAll() {
+  public ResponseEntity<?> getAll(
+      @Parameter(description = "The ID of the last user on the previous page")
+      @RequestParam(required = false) Long after,
+      @Parameter(description = "The maximum number of users on the page")
+      @RequestParam(required = false) Integer limit
+  ) {
     ResponseEntity<?> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null && sessionUser.isAdmin()) {
-      Iterable<User> users = this.userService.getAll();
-      Set<UserDto> userData = new LinkedHashSet<>();
-      for (User user : users) {
-        UserDto userDataObj = new UserDto(user.getId(), user.getFirstName(), user.getLastName(),
-                                          user.getEmail(), user.getPhoneNumber(),
-                                          user.getDateOfBirth().getTime(), user.isActive(),
-                                          user.getRoles(), user.getRentals(), user.getReceipts(),
-                                          user.getFavorites());
-        userData.add(userDataObj);
-      }
+      KeysetPage<UserDto> userData = this.userService.getDtoPage(Pagination.cursor(after),
+                                                                 Pagination.limit(limit));
       logger.info("Sending all user data...");
-      response = new ResponseEntity<>(userData, HttpStatus.OK);
+      response = Pagination.ok(userData);
     } else if (sessionUser == null) {
       logger.error("User not authenticated, sending error message...");
       response = new ResponseEntity<>("Only authenticated users have access to all user data",
@@ -155,17 +158,10 @@ public class UserController {
     ResponseEntity<?> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null) {
-      Optional<User> user = this.userService.getOneByEmail(email);
+      Optional<UserDto> user = this.userService.getDtoByEmail(email);
       if (user.isPresent()) {
         if (sessionUser.getEmail().equals(user.get().getEmail()) || sessionUser.isAdmin()) {
-          User foundUser = user.get();
-          UserDto userData = new UserDto(foundUser.getId(), foundUser.getFirstName(),
-                                         foundUser.getLastName(), foundUser.getEmail(),
-                                         foundUser.getPhoneNumber(),
-                                         foundUser.getDateOfBirth().getTime(),
-                                         foundUser.isActive(), foundUser.getRoles(),
-                                         foundUser.getRentals(), foundUser.getReceipts(),
-                                         foundUser.getFavorites());
+          UserDto userData = user.get();
           logger.info("User found, sending user data...");
           response = new ResponseEntity<>(userData, HttpStatus.OK);
         } else {
@@ -191,17 +187,17 @@ public class UserController {
    * Returns a HTTP response to the request requesting to update the user with the specified email
    * with the specified user data.
    * 
-   * <p>Every time the user is updated, a new JWT token is generated for the user, as JWT tokens
-   * use email as subject for the users.</p>
+   * <p>Every time users update themselves, a new JWT token is generated for them, as JWT tokens
+   * use email as subject for the users. An admin updating another user gets no token.</p>
    *
    * <p>All the user data is updated except the user password.</p>
    *
-   * <p>The response body contains a JWT token on success or a string with an error message on
-   * error.</p>
+   * <p>The response body contains a JWT token on success if the session user is updated, nothing
+   * on success otherwise, or a string with an error message on error.</p>
    *
    * @param email    The specified email
    * @param userData The specified user data
-   * @return <p>200 OK on success + new JWT token</p>
+   * @return <p>200 OK on success + new JWT token if the session user is updated</p>
    *         <p>400 BAD REQUEST on error</p>
    *         <p>401 UNAUTHORIZED if user is not authenticated</p>
    *         <p>403 FORBIDDEN if user email does not match email</p>
@@ -214,7 +210,7 @@ public class UserController {
   @ApiResponses(value = {
       @ApiResponse(
         responseCode = "200",
-        description = "User data updated + new JWT token"
+        description = "User data updated + new JWT token if the session user is updated"
       ),
       @ApiResponse(
         responseCode = "400",
@@ -243,11 +239,11 @@ public class UserController {
     ResponseEntity<?> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null) {
-      Optional<User> user = this.userService.getOneByEmail(email);
+      Optional<User> user = this.accessUserService.getUserByEmail(email);
       if (user.isPresent()) {
         if (sessionUser.getEmail().equals(user.get().getEmail()) || sessionUser.isAdmin()) {
           String errorMessage = this.accessUserService.updateUser(user.get(), userData);
-          if (errorMessage == null) {
+          if (errorMessage == null && sessionUser.getId().equals(user.get().getId())) {
             final UserDetails userDetails = this.accessUserService.loadUserByUsername(
                 userData.getEmail()
             );
@@ -255,6 +251,9 @@ public class UserController {
             logger.info("User found and valid user data, updating user and sending new JWT "
                       + "token...");
             response = new ResponseEntity<>(new AuthenticationResponse(jwt), HttpStatus.OK);
+          } else if (errorMessage == null) {
+            logger.info("User found and valid user data, updating user...");
+            response = new ResponseEntity<>("", HttpStatus.OK);
           } else {
             logger.error("Invalid user data, sending error message...");
             response = new ResponseEntity<>(errorMessage, HttpStatus.BAD_REQUEST);
@@ -282,12 +281,18 @@ public class UserController {
    * Returns a HTTP response to the request requesting to update the user password of the user with
    * the specified email with the specified user password.
    *
-   * <p>The response body contains an empty string on success or a string with an error message on
-   * error.</p>
+   * <p>Updating the password makes the JWT tokens issued to the user before the update invalid, so
+   * users updating their own password get a new JWT token and refresh token. An admin updating the
+   * password of another user gets no tokens.</p>
+   *
+   * <p>The response body contains a JWT token and a refresh token on success if the password of
+   * the session user is updated, nothing on success otherwise, or a string with an error message
+   * on error.</p>
    *
    * @param email        The specified email
    * @param userPassword The specified user password
-   * @return <p>200 OK on success</p>
+   * @return <p>200 OK on success + new JWT token and refresh token if the password of the session
+   *         user is updated</p>
    *         <p>400 BAD REQUEST on error</p>
    *         <p>401 UNAUTHORIZED if user is not authenticated</p>
    *         <p>403 FORBIDDEN if user email does not match email</p>
@@ -300,7 +305,8 @@ public class UserController {
   @ApiResponses(value = {
       @ApiResponse(
         responseCode = "200",
-        description = "User password updated"
+        description = "User password updated + new JWT token and refresh token if the password "
+                    + "of the session user is updated"
       ),
       @ApiResponse(
         responseCode = "400",
@@ -320,20 +326,29 @@ public class UserController {
       )
   })
   @PutMapping("/{email}/password")
-  public ResponseEntity<String> updatePassword(
+  public ResponseEntity<?> updatePassword(
       @Parameter(description = "The email of the user to update password for")
       @PathVariable String email,
       @Parameter(description = "The user password to update the existing user password with")
       @RequestBody UserUpdatePasswordDto userPassword) {
-    ResponseEntity<String> response;
+    ResponseEntity<?> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null) {
-      Optional<User> user = this.userService.getOneByEmail(email);
+      Optional<User> user = this.accessUserService.getUserByEmail(email);
       if (user.isPresent()) {
         if (sessionUser.getEmail().equals(user.get().getEmail()) || sessionUser.isAdmin()) {
           String errorMessage =
               this.accessUserService.updateUserPassword(user.get(), userPassword);
-          if (errorMessage == null) {
+          if (errorMessage == null && sessionUser.getId().equals(user.get().getId())) {
+            final AccessUserDetails userDetails =
+                (AccessUserDetails) this.accessUserService.loadUserByUsername(email);
+            final String jwt = this.jwtUtil.generateToken(userDetails);
+            final String refreshToken = this.refreshTokenService.issue(userDetails);
+            logger.info("User found and valid user password data, updating user password and "
+                      + "sending new JWT token...");
+            response = new ResponseEntity<>(new AuthenticationResponse(jwt, refreshToken),
+                                            HttpStatus.OK);
+          } else if (errorMessage == null) {
             logger.info("User found and valid user password data, updating user password...");
             response = new ResponseEntity<>("", HttpStatus.OK);
           } else {
@@ -401,7 +416,7 @@ public class UserController {
     ResponseEntity<String> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null) {
-      Optional<User> user = this.userService.getOneByEmail(email);
+      Optional<User> user = this.accessUserService.getUserByEmail(email);
       if (user.isPresent()) {
         User foundUser = user.get();
         if (sessionUser.getEmail().equals(foundUser.getEmail()) || sessionUser.isAdmin()) {
@@ -438,7 +453,6 @@ public class UserController {
    * @return <p>200 OK on success</p>
    *         <p>401 UNAUTHORIZED if user is not authenticated</p>
    *         <p>404 NOT FOUND if provider with specified provider ID is not found</p>
-   *         <p>500 INTERNAL SERVER ERROR if an error occurs when updating user</p>
    */
   @Operation(
       summary = "Favorite provider",
@@ -456,10 +470,6 @@ public class UserController {
       @ApiResponse(
         responseCode = "404",
         description = "Provider with specified provider ID not found"
-      ),
-      @ApiResponse(
-        responseCode = "500",
-        description = "Could not favorite provider with specified provider ID"
       )
   })
   @PutMapping("/favorite/{providerId}")
@@ -467,25 +477,9 @@ public class UserController {
     ResponseEntity<String> response;
     User sessionUser = this.accessUserService.getSessionUser();
     if (sessionUser != null) {
-      Optional<Provider> provider = this.providerService.getOne(providerId);
-      if (provider.isPresent()) {
-        Provider foundProvider = provider.get();
-        Set<Provider> favorites = sessionUser.getFavorites();
-        if (!favorites.contains(foundProvider)) {
-          sessionUser.addFavorite(foundProvider);
-        } else {
-          sessionUser.removeFavorite(foundProvider);
-        }
-        try {
-          this.userService.update(sessionUser.getId(), sessionUser);
-          logger.info("Provider found, adding it to user favorites...");
-          response = new ResponseEntity<>("", HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-          logger.error("Could not favorite provider (error updating user), sending error "
-                     + "message...");
-          response = new ResponseEntity<>("Could not favorite provider with specified provider "
-                                        + "ID", HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+      if (this.userService.toggleFavorite(sessionUser.getId(), providerId)) {
+        logger.info("Provider found, adding it to user favorites...");
+        response = new ResponseEntity<>("", HttpStatus.OK);
       } else {
         logger.error("Provider not found, sending error message...");
         response = new ResponseEntity<>("Provider with specified provider ID not found",
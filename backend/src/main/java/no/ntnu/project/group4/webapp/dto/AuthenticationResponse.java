@@ -7,6 +7,7 @@ package no.ntnu.project.group4.webapp.dto;
  */
 public class AuthenticationResponse {
   private final String jwt;
+  private final String refreshToken;
 
   /**
    * Constructs an instance of the AuthenticationResponse class.
@@ -14,7 +15,18 @@ public class AuthenticationResponse {
    * @param jwt The specified JWT token
    */
   public AuthenticationResponse(String jwt) {
+    this(jwt, null);
+  }
+
+  /**
+   * Constructs an instance of the AuthenticationResponse class.
+   *
+   * @param jwt          The specified JWT token
+   * @param refreshToken The specified refresh token
+   */
+  public AuthenticationResponse(String jwt, String refreshToken) {
     this.jwt = jwt;
+    this.refreshToken = refreshToken;
   }
 
   /**
@@ -25,4 +37,13 @@ public class AuthenticationResponse {
   public String getJwt() {
     return jwt;
   }
+
+  /**
+   * Getter for refresh token.
+   *
+   * @return Refresh token
+   */
+  public String getRefreshToken() {
+    return refreshToken;
+  }
 }
@@ -0,0 +1,90 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.util.List;
+
+/**
+ * The CarDto class represents the data transfer object (DTO) for sending car data as part of the
+ * car catalog.
+ */
+public class CarDto {
+  private final Long id;
+  private final String make;
+  private final String model;
+  private final int year;
+  private final Long version;
+  private final List<ConfigurationDto> configurations;
+
+  /**
+   * Constructs an instance of the CarDto class.
+   *
+   * @param id             The specified ID
+   * @param make           The specified make
+   * @param model          The specified model
+   * @param year           The specified year
+   * @param version        The specified version
+   * @param configurations The specified configurations
+   */
+  public CarDto(Long id, String make, String model, int year, Long version,
+                List<ConfigurationDto> configurations) {
+    this.id = id;
+    this.make = make;
+    this.model = model;
+    this.year = year;
+    this.version = version;
+    this.configurations = configurations;
+  }
+
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
+  /**
+   * Getter for make.
+   *
+   * @return Make
+   */
+  public String getMake() {
+    return this.make;
+  }
+
+  /**
+   * Getter for model.
+   *
+   * @return Model
+   */
+  public String getModel() {
+    return this.model;
+  }
+
+  /**
+   * Getter for year.
+   *
+   * @return Year
+   */
+  public int getYear() {
+    return this.year;
+  }
+
+  /**
+   * Getter for version.
+   *
+   * @return Version
+   */
+  public Long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Getter for configurations.
+   *
+   * @return Configurations
+   */
+  public List<ConfigurationDto> getConfigurations() {
+    return this.configurations;
+  }
+}
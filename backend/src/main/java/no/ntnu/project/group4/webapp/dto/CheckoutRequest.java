@@ -0,0 +1,111 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.sql.Date;
+
+/**
+ * The CheckoutRequest class represents a checkout request data transfer object (DTO). The class
+ * contains the email of the user to book for, the provider to rent and the period to rent it in.
+ * The price is not part of the request, as it is computed by the server.
+ */
+public class CheckoutRequest {
+  private String email;
+  private Long providerId;
+  private Date startDate;
+  private Date endDate;
+
+  /**
+   * Constructs an instance of the CheckoutRequest class.
+   *
+   * <p>Empty constructor needed for JSON deserialization.</p>
+   */
+  public CheckoutRequest() {
+    // Intentionally left blank
+  }
+
+  /**
+   * Constructs an instance of the CheckoutRequest class.
+   *
+   * @param email      The specified email
+   * @param providerId The specified provider ID
+   * @param startDate  The specified start date
+   * @param endDate    The specified end date
+   */
+  public CheckoutRequest(String email, Long providerId, Date startDate, Date endDate) {
+    this.email = email;
+    this.providerId = providerId;
+    this.startDate = startDate;
+    this.endDate = endDate;
+  }
+
+  /**
+   * Getter for email.
+   *
+   * @return Email
+   */
+  public String getEmail() {
+    return this.email;
+  }
+
+  /**
+   * Setter for email.
+   *
+   * @param email The specified email
+   */
+  public void setEmail(String email) {
+    this.email = email;
+  }
+
+  /**
+   * Getter for provider ID.
+   *
+   * @return Provider ID
+   */
+  public Long getProviderId() {
+    return this.providerId;
+  }
+
+  /**
+   * Setter for provider ID.
+   *
+   * @param providerId The specified provider ID
+   */
+  public void setProviderId(Long providerId) {
+    this.providerId = providerId;
+  }
+
+  /**
+   * Getter for start date.
+   *
+   * @return Start date
+   */
+  public Date getStartDate() {
+    return this.startDate;
+  }
+
+  /**
+   * Setter for start date.
+   *
+   * @param startDate The specified start date
+   */
+  public void setStartDate(Date startDate) {
+    this.startDate = startDate;
+  }
+
+  /**
+   * Getter for end date.
+   *
+   * @return End date
+   */
+  public Date getEndDate() {
+    return this.endDate;
+  }
+
+  /**
+   * Setter for end date.
+   *
+   * @param endDate The specified end date
+   */
+  public void setEndDate(Date endDate) {
+    this.endDate = endDate;
+  }
+}
@@ -0,0 +1,42 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import no.ntnu.project.group4.webapp.models.Receipt;
+
+/**
+ * The CheckoutResponse class represents a checkout response data transfer object (DTO). The class
+ * contains the ID of the booked rental and the receipt of it, with the price computed by the
+ * server.
+ */
+public class CheckoutResponse {
+  private final Long rentalId;
+  private final Receipt receipt;
+
+  /**
+   * Constructs an instance of the CheckoutResponse class.
+   *
+   * @param rentalId The specified rental ID
+   * @param receipt  The specified receipt
+   */
+  public CheckoutResponse(Long rentalId, Receipt receipt) {
+    this.rentalId = rentalId;
+    this.receipt = receipt;
+  }
+
+  /**
+   * Getter for rental ID.
+   *
+   * @return Rental ID
+   */
+  public Long getRentalId() {
+    return this.rentalId;
+  }
+
+  /**
+   * Getter for receipt.
+   *
+   * @return Receipt
+   */
+  public Receipt getReceipt() {
+    return this.receipt;
+  }
+}
@@ -0,0 +1,103 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.util.List;
+
+/**
+ * The ConfigurationDto class represents the data transfer object (DTO) for sending configuration
+ * data as part of the car catalog.
+ */
+public class ConfigurationDto {
+  private final Long id;
+  private final String name;
+  private final String fuelType;
+  private final String transmissionType;
+  private final int numberOfSeats;
+  private final List<ExtraFeatureDto> extraFeatures;
+  private final List<ProviderDto> providers;
+
+  /**
+   * Constructs an instance of the ConfigurationDto class.
+   *
+   * @param id               The specified ID
+   * @param name             The specified name
+   * @param fuelType         The specified fuel type
+   * @param transmissionType The specified transmission type
+   * @param numberOfSeats    The specified number of seats
+   * @param extraFeatures    The specified extra features
+   * @param providers        The specified providers
+   */
+  public ConfigurationDto(Long id, String name, String fuelType, String transmissionType,
+                          int numberOfSeats, List<ExtraFeatureDto> extraFeatures,
+                          List<ProviderDto> providers) {
+    this.id = id;
+    this.name = name;
+    this.fuelType = fuelType;
+    this.transmissionType = transmissionType;
+    this.numberOfSeats = numberOfSeats;
+    this.extraFeatures = extraFeatures;
+    this.providers = providers;
+  }
+
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
+  /**
+   * Getter for name.
+   *
+   * @return Name
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Getter for fuel type.
+   *
+   * @return Fuel type
+   */
+  public String getFuelType() {
+    return this.fuelType;
+  }
+
+  /**
+   * Getter for transmission type.
+   *
+   * @return Transmission type
+   */
+  public String getTransmissionType() {
+    return this.transmissionType;
+  }
+
+  /**
+   * Getter for number of seats.
+   *
+   * @return Number of seats
+   */
+  public int getNumberOfSeats() {
+    return this.numberOfSeats;
+  }
+
+  /**
+   * Getter for extra features.
+   *
+   * @return Extra features
+   */
+  public List<ExtraFeatureDto> getExtraFeatures() {
+    return this.extraFeatures;
+  }
+
+  /**
+   * Getter for providers.
+   *
+   * @return Providers
+   */
+  public List<ProviderDto> getProviders() {
+    return this.providers;
+  }
+}
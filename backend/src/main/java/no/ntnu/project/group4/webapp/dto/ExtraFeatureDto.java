@@ -0,0 +1,39 @@
+package no.ntnu.project.group4.webapp.dto;
+
+/**
+ * The ExtraFeatureDto class represents the data transfer object (DTO) for sending extra feature
+ * data as part of the car catalog.
+ */
+public class ExtraFeatureDto {
+  private final Long id;
+  private final String name;
+
+  /**
+   * Constructs an instance of the ExtraFeatureDto class.
+   *
+   * @param id   The specified ID
+   * @param name The specified name
+   */
+  public ExtraFeatureDto(Long id, String name) {
+    this.id = id;
+    this.name = name;
+  }
+
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
+  /**
+   * Getter for name.
+   *
+   * @return Name
+   */
+  public String getName() {
+    return this.name;
+  }
+}
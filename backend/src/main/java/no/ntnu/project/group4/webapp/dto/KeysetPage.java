@@ -0,0 +1,81 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The KeysetPage class represents a single page of a list sorted by ID.
+ *
+ * <p>A page is read with a query on the form "ID greater than cursor, ordered by ID, limited to
+ * one more row than the page size". The extra row is only used to know if there is a next page,
+ * so reading a page costs the same no matter how deep into the list it is.</p>
+ *
+ * @param <T> The type of the items in the page
+ */
+public class KeysetPage<T> {
+  private final List<T> items;
+  private final Long nextCursor;
+
+  /**
+   * Constructs an instance of the KeysetPage class.
+   *
+   * @param items      The specified items
+   * @param nextCursor The specified cursor of the next page, or null if this is the last page
+   */
+  public KeysetPage(List<T> items, Long nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Returns a page of the specified rows, read with one more row than the specified limit.
+   *
+   * @param rows  The specified rows, sorted by ID
+   * @param limit The specified limit
+   * @param idOf  The function returning the ID of a row
+   * @param <T>   The type of the rows
+   * @return A page of the specified rows
+   */
+  public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+    if (rows.size() <= limit) {
+      return new KeysetPage<>(rows, null);
+    }
+    List<T> items = new ArrayList<>(rows.subList(0, limit));
+    return new KeysetPage<>(items, idOf.apply(items.get(limit - 1)));
+  }
+
+  /**
+   * Returns a page with the same cursor and the items of this page mapped by the specified
+   * function.
+   *
+   * @param mapper The specified function
+   * @param <R>    The type of the mapped items
+   * @return A page with the mapped items
+   */
+  public <R> KeysetPage<R> map(Function<T, R> mapper) {
+    List<R> mappedItems = new ArrayList<>();
+    for (T item : this.items) {
+      mappedItems.add(mapper.apply(item));
+    }
+    return new KeysetPage<>(mappedItems, this.nextCursor);
+  }
+
+  /**
+   * Getter for items.
+   *
+   * @return Items
+   */
+  public List<T> getItems() {
+    return this.items;
+  }
+
+  /**
+   * Getter for next cursor.
+   *
+   * @return Next cursor, or null if this is the last page
+   */
+  public Long getNextCursor() {
+    return this.nextCursor;
+  }
+}
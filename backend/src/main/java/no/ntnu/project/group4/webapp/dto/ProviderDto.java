@@ -0,0 +1,114 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.util.List;
+
+/**
+ * The ProviderDto class represents the data transfer object (DTO) for sending provider data as
+ * part of the car catalog.
+ */
+public class ProviderDto {
+  private final Long id;
+  private final String name;
+  private final int price;
+  private final String location;
+  private final boolean available;
+  private final boolean visible;
+  private final Long version;
+  private final List<RentalDto> rentals;
+
+  /**
+   * Constructs an instance of the ProviderDto class.
+   *
+   * @param id        The specified ID
+   * @param name      The specified name
+   * @param price     The specified price
+   * @param location  The specified location
+   * @param available The specified availability
+   * @param visible   The specified visibility
+   * @param version   The specified version
+   * @param rentals   The specified rentals
+   */
+  public ProviderDto(Long id, String name, int price, String location, boolean available,
+                     boolean visible, Long version, List<RentalDto> rentals) {
+    this.id = id;
+    this.name = name;
+    this.price = price;
+    this.location = location;
+    this.available = available;
+    this.visible = visible;
+    this.version = version;
+    this.rentals = rentals;
+  }
+
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
+  /**
+   * Getter for name.
+   *
+   * @return Name
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Getter for price.
+   *
+   * @return Price
+   */
+  public int getPrice() {
+    return this.price;
+  }
+
+  /**
+   * Getter for location.
+   *
+   * @return Location
+   */
+  public String getLocation() {
+    return this.location;
+  }
+
+  /**
+   * Checks if provider is available.
+   *
+   * @return True if provider is available or false otherwise
+   */
+  public boolean isAvailable() {
+    return this.available;
+  }
+
+  /**
+   * Checks if provider is visible.
+   *
+   * @return True if provider is visible or false otherwise
+   */
+  public boolean isVisible() {
+    return this.visible;
+  }
+
+  /**
+   * Getter for version.
+   *
+   * @return Version
+   */
+  public Long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Getter for rentals.
+   *
+   * @return Rentals
+   */
+  public List<RentalDto> getRentals() {
+    return this.rentals;
+  }
+}
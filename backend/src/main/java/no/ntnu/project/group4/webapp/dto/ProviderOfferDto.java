@@ -0,0 +1,175 @@
+package no.ntnu.project.group4.webapp.dto;
+
+/**
+ * The ProviderOfferDto class represents the data transfer object (DTO) for sending a bookable
+ * provider offer. An offer is a flattened view of a provider together with the configuration and
+ * car it belongs to.
+ */
+public class ProviderOfferDto {
+  private final Long providerId;
+  private final String providerName;
+  private final int price;
+  private final String location;
+  private final Long configurationId;
+  private final String configurationName;
+  private final String fuelType;
+  private final String transmissionType;
+  private final int numberOfSeats;
+  private final Long carId;
+  private final String make;
+  private final String model;
+  private final int year;
+
+  /**
+   * Constructs an instance of the ProviderOfferDto class.
+   *
+   * @param providerId        The specified provider ID
+   * @param providerName      The specified provider name
+   * @param price             The specified price
+   * @param location          The specified location
+   * @param configurationId   The specified configuration ID
+   * @param configurationName The specified configuration name
+   * @param fuelType          The specified fuel type
+   * @param transmissionType  The specified transmission type
+   * @param numberOfSeats     The specified number of seats
+   * @param carId             The specified car ID
+   * @param make              The specified make
+   * @param model             The specified model
+   * @param year              The specified year
+   */
+  public ProviderOfferDto(Long providerId, String providerName, int price, String location,
+                          Long configurationId, String configurationName, String fuelType,
+                          String transmissionType, int numberOfSeats, Long carId, String make,
+                          String model, int year) {
+    this.providerId = providerId;
+    this.providerName = providerName;
+    this.price = price;
+    this.location = location;
+    this.configurationId = configurationId;
+    this.configurationName = configurationName;
+    this.fuelType = fuelType;
+    this.transmissionType = transmissionType;
+    this.numberOfSeats = numberOfSeats;
+    this.carId = carId;
+    this.make = make;
+    this.model = model;
+    this.year = year;
+  }
+
+  /**
+   * Getter for provider ID.
+   *
+   * @return Provider ID
+   */
+  public Long getProviderId() {
+    return this.providerId;
+  }
+
+  /**
+   * Getter for provider name.
+   *
+   * @return Provider name
+   */
+  public String getProviderName() {
+    return this.providerName;
+  }
+
+  /**
+   * Getter for price.
+   *
+   * @return Price
+   */
+  public int getPrice() {
+    return this.price;
+  }
+
+  /**
+   * Getter for location.
+   *
+   * @return Location
+   */
+  public String getLocation() {
+    return this.location;
+  }
+
+  /**
+   * Getter for configuration ID.
+   *
+   * @return Configuration ID
+   */
+  public Long getConfigurationId() {
+    return this.configurationId;
+  }
+
+  /**
+   * Getter for configuration name.
+   *
+   * @return Configuration name
+   */
+  public String getConfigurationName() {
+    return this.configurationName;
+  }
+
+  /**
+   * Getter for fuel type.
+   *
+   * @return Fuel type
+   */
+  public String getFuelType() {
+    return this.fuelType;
+  }
+
+  /**
+   * Getter for transmission type.
+   *
+   * @return Transmission type
+   */
+  public String getTransmissionType() {
+    return this.transmissionType;
+  }
+
+  /**
+   * Getter for number of seats.
+   *
+   * @return Number of seats
+   */
+  public int getNumberOfSeats() {
+    return this.numberOfSeats;
+  }
+
+  /**
+   * Getter for car ID.
+   *
+   * @return Car ID
+   */
+  public Long getCarId() {
+    return this.carId;
+  }
+
+  /**
+   * Getter for make.
+   *
+   * @return Make
+   */
+  public String getMake() {
+    return this.make;
+  }
+
+  /**
+   * Getter for model.
+   *
+   * @return Model
+   */
+  public String getModel() {
+    return this.model;
+  }
+
+  /**
+   * Getter for year.
+   *
+   * @return Year
+   */
+  public int getYear() {
+    return this.year;
+  }
+}
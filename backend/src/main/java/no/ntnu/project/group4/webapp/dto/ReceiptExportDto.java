@@ -0,0 +1,114 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.sql.Date;
+
+/**
+ * The ReceiptExportDto class represents the data transfer object (DTO) for sending a receipt as
+ * part of the receipt export.
+ */
+public class ReceiptExportDto {
+  private final Long id;
+  private final String carName;
+  private final String providerName;
+  private final String location;
+  private final Date startDate;
+  private final Date endDate;
+  private final int totalPrice;
+  private final String userEmail;
+
+  /**
+   * Constructs an instance of the ReceiptExportDto class.
+   *
+   * @param id           The specified ID
+   * @param carName      The specified car name
+   * @param providerName The specified provider name
+   * @param location     The specified location
+   * @param startDate    The specified start date
+   * @param endDate      The specified end date
+   * @param totalPrice   The specified total price
+   * @param userEmail    The specified user email
+   */
+  public ReceiptExportDto(Long id, String carName, String providerName, String location,
+                          Date startDate, Date endDate, int totalPrice, String userEmail) {
+    this.id = id;
+    this.carName = carName;
+    this.providerName = providerName;
+    this.location = location;
+    this.startDate = startDate;
+    this.endDate = endDate;
+    this.totalPrice = totalPrice;
+    this.userEmail = userEmail;
+  }
+
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
+  /**
+   * Getter for car name.
+   *
+   * @return Car name
+   */
+  public String getCarName() {
+    return this.carName;
+  }
+
+  /**
+   * Getter for provider name.
+   *
+   * @return Provider name
+   */
+  public String getProviderName() {
+    return this.providerName;
+  }
+
+  /**
+   * Getter for location.
+   *
+   * @return Location
+   */
+  public String getLocation() {
+    return this.location;
+  }
+
+  /**
+   * Getter for start date.
+   *
+   * @return Start date
+   */
+  public Date getStartDate() {
+    return this.startDate;
+  }
+
+  /**
+   * Getter for end date.
+   *
+   * @return End date
+   */
+  public Date getEndDate() {
+    return this.endDate;
+  }
+
+  /**
+   * Getter for total price.
+   *
+   * @return Total price
+   */
+  public int getTotalPrice() {
+    return this.totalPrice;
+  }
+
+  /**
+   * Getter for user email.
+   *
+   * @return User email
+   */
+  public String getUserEmail() {
+    return this.userEmail;
+  }
+}
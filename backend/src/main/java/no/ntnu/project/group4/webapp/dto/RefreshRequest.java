@@ -0,0 +1,45 @@
+package no.ntnu.project.group4.webapp.dto;
+
+/**
+ * The RefreshRequest class represents a refresh request data transfer object (DTO). The class
+ * contains data the user will send when requesting a new JWT token with a refresh token.
+ */
+public class RefreshRequest {
+  private String refreshToken;
+
+  /**
+   * Constructs an instance of the RefreshRequest class.
+   *
+   * <p>Empty constructor needed for JSON deserialization.</p>
+   */
+  public RefreshRequest() {
+    // Intentionally left blank
+  }
+
+  /**
+   * Constructs an instance of the RefreshRequest class.
+   *
+   * @param refreshToken The specified refresh token
+   */
+  public RefreshRequest(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+
+  /**
+   * Getter for refresh token.
+   *
+   * @return Refresh token
+   */
+  public String getRefreshToken() {
+    return this.refreshToken;
+  }
+
+  /**
+   * Setter for refresh token.
+   *
+   * @param refreshToken The specified refresh token
+   */
+  public void setRefreshToken(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+}
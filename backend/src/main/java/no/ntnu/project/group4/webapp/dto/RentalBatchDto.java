@@ -0,0 +1,69 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The RentalBatchDto class represents the data transfer object (DTO) for booking several rentals
+ * at once. The class contains the email of the user to book for and the rentals to book.
+ */
+public class RentalBatchDto {
+  private String email;
+  private List<RentalBatchItemDto> rentals = new ArrayList<>();
+
+  /**
+   * Constructs an instance of the RentalBatchDto class.
+   *
+   * <p>Empty constructor needed for JSON deserialization.</p>
+   */
+  public RentalBatchDto() {
+    // Intentionally left blank
+  }
+
+  /**
+   * Constructs an instance of the RentalBatchDto class.
+   *
+   * @param email   The specified email
+   * @param rentals The specified rentals
+   */
+  public RentalBatchDto(String email, List<RentalBatchItemDto> rentals) {
+    this.email = email;
+    this.rentals = rentals;
+  }
+
+  /**
+   * Getter for email.
+   *
+   * @return Email
+   */
+  public String getEmail() {
+    return this.email;
+  }
+
+  /**
+   * Setter for email.
+   *
+   * @param email The specified email
+   */
+  public void setEmail(String email) {
+    this.email = email;
+  }
+
+  /**
+   * Getter for rentals.
+   *
+   * @return Rentals
+   */
+  public List<RentalBatchItemDto> getRentals() {
+    return this.rentals;
+  }
+
+  /**
+   * Setter for rentals.
+   *
+   * @param rentals The specified rentals
+   */
+  public void setRentals(List<RentalBatchItemDto> rentals) {
+    this.rentals = rentals;
+  }
+}
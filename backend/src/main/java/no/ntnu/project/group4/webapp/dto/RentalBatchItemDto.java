@@ -0,0 +1,89 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.sql.Date;
+
+/**
+ * The RentalBatchItemDto class represents the data transfer object (DTO) for one rental in a
+ * batch of rentals. The class contains the provider to rent and the period to rent it in.
+ */
+public class RentalBatchItemDto {
+  private Long providerId;
+  private Date startDate;
+  private Date endDate;
+
+  /**
+   * Constructs an instance of the RentalBatchItemDto class.
+   *
+   * <p>Empty constructor needed for JSON deserialization.</p>
+   */
+  public RentalBatchItemDto() {
+    // Intentionally left blank
+  }
+
+  /**
+   * Constructs an instance of the RentalBatchItemDto class.
+   *
+   * @param providerId The specified provider ID
+   * @param startDate  The specified start date
+   * @param endDate    The specified end date
+   */
+  public RentalBatchItemDto(Long providerId, Date startDate, Date endDate) {
+    this.providerId = providerId;
+    this.startDate = startDate;
+    this.endDate = endDate;
+  }
+
+  /**
+   * Getter for provider ID.
+   *
+   * @return Provider ID
+   */
+  public Long getProviderId() {
+    return this.providerId;
+  }
+
+  /**
+   * Setter for provider ID.
+   *
+   * @param providerId The specified provider ID
+   */
+  public void setProviderId(Long providerId) {
+    this.providerId = providerId;
+  }
+
+  /**
+   * Getter for start date.
+   *
+   * @return Start date
+   */
+  public Date getStartDate() {
+    return this.startDate;
+  }
+
+  /**
+   * Setter for start date.
+   *
+   * @param startDate The specified start date
+   */
+  public void setStartDate(Date startDate) {
+    this.startDate = startDate;
+  }
+
+  /**
+   * Getter for end date.
+   *
+   * @return End date
+   */
+  public Date getEndDate() {
+    return this.endDate;
+  }
+
+  /**
+   * Setter for end date.
+   *
+   * @param endDate The specified end date
+   */
+  public void setEndDate(Date endDate) {
+    this.endDate = endDate;
+  }
+}
@@ -0,0 +1,53 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.sql.Date;
+
+/**
+ * The RentalDto class represents the data transfer object (DTO) for sending the period of a
+ * rental as part of the car catalog.
+ */
+public class RentalDto {
+  private final Long id;
+  private final Date startDate;
+  private final Date endDate;
+
+  /**
+   * Constructs an instance of the RentalDto class.
+   *
+   * @param id        The specified ID
+   * @param startDate The specified start date
+   * @param endDate   The specified end date
+   */
+  public RentalDto(Long id, Date startDate, Date endDate) {
+    this.id = id;
+    this.startDate = startDate;
+    this.endDate = endDate;
+  }
+
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
+  /**
+   * Getter for start date.
+   *
+   * @return Start date
+   */
+  public Date getStartDate() {
+    return this.startDate;
+  }
+
+  /**
+   * Getter for end date.
+   *
+   * @return End date
+   */
+  public Date getEndDate() {
+    return this.endDate;
+  }
+}
@@ -0,0 +1,77 @@
+package no.ntnu.project.group4.webapp.dto;
+
+import java.sql.Date;
+
+/**
+ * The RentalExportDto class represents the data transfer object (DTO) for sending a rental as
+ * part of the rental export.
+ */
+public class RentalExportDto {
+  private final Long id;
+  private final Date startDate;
+  private final Date endDate;
+  private final Long providerId;
+  private final String userEmail;
+
+  /**
+   * Constructs an instance of the RentalExportDto class.
+   *
+   * @param id         The specified ID
+   * @param startDate  The specified start date
+   * @param endDate    The specified end date
+   * @param providerId The specified provider ID
+   * @param userEmail  The specified user email
+   */
+  public RentalExportDto(Long id, Date startDate, Date endDate, Long providerId, String userEmail) {
+    this.id = id;
+    this.startDate = startDate;
+    this.endDate = endDate;
+    this.providerId = providerId;
+    this.userEmail = userEmail;
+  }
+
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
+  /**
+   * Getter for start date.
+   *
+   * @return Start date
+   */
+  public Date getStartDate() {
+    return this.startDate;
+  }
+
+  /**
+   * Getter for end date.
+   *
+   * @return End date
+   */
+  public Date getEndDate() {
+    return this.endDate;
+  }
+
+  /**
+   * Getter for provider ID.
+   *
+   * @return Provider ID
+   */
+  public Long getProviderId() {
+    return this.providerId;
+  }
+
+  /**
+   * Getter for user email.
+   *
+   * @return User email
+   */
+  public String getUserEmail() {
+    return this.userEmail;
+  }
+}
@@ -1,14 +1,18 @@
 package no.ntnu.project.group4.webapp.models;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
 import jakarta.persistence.Table;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * The Car class represents the entity class for the car entity.
@@ -21,7 +25,12 @@ import java.util.Set;
 public class Car {
   @Schema(description = "Unique ID")
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_seq")
+  @SequenceGenerator(
+      name = "car_seq",
+      sequenceName = "car_seq",
+      allocationSize = 50
+  )
   private Long id;
   @Schema(description = "Car make")
   private String make;
@@ -29,6 +38,11 @@ public class Car {
   private String model;
   @Schema(description = "Car model release year")
   private int year;
+  @Schema(description = "Version of the car, increased every time it is updated")
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
   @Schema(description = "Car configurations")
   @OneToMany(mappedBy = "car")
   private Set<Configuration> configurations = new LinkedHashSet<>();
@@ -73,6 +87,25 @@ public class Car {
     this.id = id;
   }
 
+  /**
+   * Getter for version.
+   *
+   * @return Version
+   */
+  public Long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Setter for version. A version sent by a client is only compared with the version of the
+   * stored car when updating.
+   *
+   * @param version The specified version
+   */
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   /**
    * Getter for make.
    *
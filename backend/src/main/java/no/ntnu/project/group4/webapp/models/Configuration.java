@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -26,7 +27,12 @@ import java.util.Set;
 public class Configuration {
   @Schema(description = "Unique ID")
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "configuration_seq")
+  @SequenceGenerator(
+      name = "configuration_seq",
+      sequenceName = "configuration_seq",
+      allocationSize = 50
+  )
   private Long id;
   @Schema(description = "Configuration name")
   private String name;
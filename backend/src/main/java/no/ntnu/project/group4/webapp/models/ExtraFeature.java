@@ -8,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 
 /**
  * The ExtraFeature class represents the entity class for the extra feature entity.
@@ -23,7 +24,12 @@ import jakarta.persistence.ManyToOne;
 public class ExtraFeature {
   @Schema(description = "Unique ID")
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "extra_feature_seq")
+  @SequenceGenerator(
+      name = "extra_feature_seq",
+      sequenceName = "extra_feature_seq",
+      allocationSize = 50
+  )
   private Long id;
   @Schema(description = "Extra feature name")
   private String name;
@@ -2,6 +2,7 @@ package no.ntnu.project.group4.webapp.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.GeneratedValue;
@@ -10,8 +11,11 @@ import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * The Provider class represents the entity class for the provider entity.
@@ -27,7 +31,12 @@ import java.util.Set;
 public class Provider {
   @Schema(description = "Unique ID")
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "provider_seq")
+  @SequenceGenerator(
+      name = "provider_seq",
+      sequenceName = "provider_seq",
+      allocationSize = 50
+  )
   private Long id;
   @Schema(description = "Provider name")
   private String name;
@@ -39,6 +48,11 @@ public class Provider {
   private boolean available = true;
   @Schema(description = "Visibility for the configuration")
   private boolean visible = true;
+  @Schema(description = "Version of the provider, increased every time it is updated")
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
   @Schema(description = "Configuration the provider belongs to")
   @JsonIgnore
   @ManyToOne
@@ -95,6 +109,25 @@ public class Provider {
     this.id = id;
   }
 
+  /**
+   * Getter for version.
+   *
+   * @return Version
+   */
+  public Long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Setter for version. A version sent by a client is only compared with the version of the
+   * stored provider when updating.
+   *
+   * @param version The specified version
+   */
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   /**
    * Getter for name.
    *
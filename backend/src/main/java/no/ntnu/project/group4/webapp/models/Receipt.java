@@ -8,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import java.lang.annotation.Repeatable;
 import java.sql.Date;
 
@@ -24,7 +25,12 @@ import java.sql.Date;
 public class Receipt {
   @Schema(description = "Unique ID")
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "receipt_seq")
+  @SequenceGenerator(
+      name = "receipt_seq",
+      sequenceName = "receipt_seq",
+      allocationSize = 50
+  )
   private Long id;
   @Schema(description = "Name of rented car")
   private String carName;
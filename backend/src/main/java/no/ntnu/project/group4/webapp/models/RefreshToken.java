@@ -0,0 +1,147 @@
+package no.ntnu.project.group4.webapp.models;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.SequenceGenerator;
+
+/**
+ * The RefreshToken class represents the entity class for the refresh token entity.
+ *
+ * <p>Only the SHA-256 hash of a refresh token is stored, so the table cannot be used to log in.
+ * Every refresh token belongs to a family started by a login. Refreshing marks the token as used
+ * and issues a new token in the same family, and presenting a used token again revokes the whole
+ * family.</p>
+ *
+ * <p>The class uses JPA with annotations for ORM operations.</p>
+ */
+@Entity
+@Table(name = "refresh_token",
+    indexes = @Index(name = "idx_refresh_token_family", columnList = "family_id")
+)
+@Schema(description = "A refresh token entity, representing a token used to renew a JWT token")
+public class RefreshToken {
+  @Schema(description = "Unique ID")
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_seq")
+  @SequenceGenerator(
+      name = "refresh_token_seq",
+      sequenceName = "refresh_token_seq",
+      allocationSize = 50
+  )
+  private Long id;
+  @Schema(description = "Hex encoded SHA-256 hash of the refresh token")
+  @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+  private String tokenHash;
+  @Schema(description = "ID of the family the refresh token belongs to")
+  @Column(name = "family_id", nullable = false, length = 36)
+  private String familyId;
+  @Schema(description = "User the refresh token is issued to")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+  @Schema(description = "Security version of the user when the refresh token was issued")
+  private long securityVersion;
+  @Schema(description = "Expiry time of the refresh token in milliseconds since epoch")
+  private long expiresAt;
+  @Schema(description = "Used status of the refresh token")
+  private boolean used;
+
+  /**
+   * Constructs an instance of the RefreshToken class.
+   *
+   * <p>Empty constructor needed for JPA.</p>
+   */
+  public RefreshToken() {
+    // Intentionally left blank
+  }
+
+  /**
+   * Constructs an instance of the RefreshToken class.
+   *
+   * @param tokenHash       The specified token hash
+   * @param familyId        The specified family ID
+   * @param user            The specified user
+   * @param securityVersion The specified security version
+   * @param expiresAt       The specified expiry time in milliseconds since epoch
+   */
+  public RefreshToken(String tokenHash, String familyId, User user, long securityVersion,
+                      long expiresAt) {
+    this.tokenHash = tokenHash;
+    this.familyId = familyId;
+    this.user = user;
+    this.securityVersion = securityVersion;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
+  /**
+   * Getter for token hash.
+   *
+   * @return Token hash
+   */
+  public String getTokenHash() {
+    return this.tokenHash;
+  }
+
+  /**
+   * Getter for family ID.
+   *
+   * @return Family ID
+   */
+  public String getFamilyId() {
+    return this.familyId;
+  }
+
+  /**
+   * Getter for user.
+   *
+   * @return User
+   */
+  public User getUser() {
+    return this.user;
+  }
+
+  /**
+   * Getter for security version.
+   *
+   * @return Security version
+   */
+  public long getSecurityVersion() {
+    return this.securityVersion;
+  }
+
+  /**
+   * Getter for expiry time in milliseconds since epoch.
+   *
+   * @return Expiry time in milliseconds since epoch
+   */
+  public long getExpiresAt() {
+    return this.expiresAt;
+  }
+
+  /**
+   * Checks if the refresh token is used.
+   *
+   * @return True if the refresh token is used or false otherwise
+   */
+  public boolean isUsed() {
+    return this.used;
+  }
+}
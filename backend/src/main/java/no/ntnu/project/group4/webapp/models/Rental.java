@@ -2,13 +2,18 @@ package no.ntnu.project.group4.webapp.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import java.sql.Date;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * The Rental class represents the entity class for the rental entity.
@@ -16,7 +21,11 @@ import java.sql.Date;
  * <p>The class uses JPA with annotations for ORM operations.</p>
  */
 @Entity
-@Table(name = "rental")
+@Table(
+    name = "rental",
+    indexes = @Index(name = "idx_rental_provider_period",
+                     columnList = "provider_id, start_date, end_date")
+)
 @Schema(
     description = "A rental entity, representing a specific rental that can be added to a user "
                 + "and a configuration provider"
@@ -24,12 +33,22 @@ import java.sql.Date;
 public class Rental {
   @Schema(description = "Unique ID")
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rental_seq")
+  @SequenceGenerator(
+      name = "rental_seq",
+      sequenceName = "rental_seq",
+      allocationSize = 50
+  )
   private Long id;
   @Schema(description = "Start date of rental")
   private Date startDate;
   @Schema(description = "End date of rental")
   private Date endDate;
+  @Schema(description = "Version of the rental, increased every time it is updated")
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
   @Schema(description = "Provider the rental belongs to")
   @JsonIgnore
   @ManyToOne
@@ -77,6 +96,25 @@ public class Rental {
     this.id = id;
   }
 
+  /**
+   * Getter for version.
+   *
+   * @return Version
+   */
+  public Long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Setter for version. A version sent by a client is only compared with the version of the
+   * stored rental when updating.
+   *
+   * @param version The specified version
+   */
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   /**
    * Getter for start date.
    *
@@ -152,9 +190,14 @@ public class Rental {
   /**
    * Returns true if the rental is valid or false otherwise.
    *
+   * <p>A valid rental has a start and an end date, and does not end on a day before the day it
+   * starts. A rental starting and ending on the same day is valid.</p>
+   *
    * @return True if the rental is valid or false otherwise
    */
   public boolean isValid() {
-    return this.startDate.getTime() > 0 && this.endDate.getTime() > 0;
+    return this.startDate != null && this.endDate != null && this.startDate.getTime() > 0
+           && this.endDate.getTime() > 0
+           && !this.endDate.toLocalDate().isBefore(this.startDate.toLocalDate());
   }
 }
@@ -0,0 +1,87 @@
+package no.ntnu.project.group4.webapp.models;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * The RevokedToken class represents the entity class for the revoked token entity.
+ *
+ * <p>A revoked token is either a single JWT token, keyed by its token ID, or all JWT tokens issued
+ * to a user with a given security version, keyed by the user ID and the security version. The row
+ * is only needed until the revoked tokens expire.</p>
+ *
+ * <p>The class uses JPA with annotations for ORM operations.</p>
+ */
+@Entity
+@Table(name = "revoked_token",
+    indexes = {
+        @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at")
+    }
+)
+@Schema(description = "A revoked token entity, representing JWT tokens that are no longer accepted")
+public class RevokedToken {
+  @Schema(description = "Token ID, or user ID and security version, of the revoked tokens")
+  @Id
+  @Column(name = "token_id", length = 40)
+  private String tokenId;
+  @Schema(description = "Expiry time of the revoked tokens in milliseconds since epoch")
+  @Column(name = "expires_at")
+  private long expiresAt;
+  @Schema(description = "Time the tokens were revoked in milliseconds since epoch")
+  @Column(name = "revoked_at")
+  private Long revokedAt;
+
+  /**
+   * Constructs an instance of the RevokedToken class.
+   *
+   * <p>Empty constructor needed for JPA.</p>
+   */
+  public RevokedToken() {
+    // Intentionally left blank
+  }
+
+  /**
+   * Constructs an instance of the RevokedToken class, revoked now.
+   *
+   * @param tokenId   The specified token ID
+   * @param expiresAt The specified expiry time in milliseconds since epoch
+   */
+  public RevokedToken(String tokenId, long expiresAt) {
+    this.tokenId = tokenId;
+    this.expiresAt = expiresAt;
+    this.revokedAt = System.currentTimeMillis();
+  }
+
+  /**
+   * Getter for token ID.
+   *
+   * @return Token ID
+   */
+  public String getTokenId() {
+    return this.tokenId;
+  }
+
+  /**
+   * Getter for expiry time in milliseconds since epoch.
+   *
+   * @return Expiry time in milliseconds since epoch
+   */
+  public long getExpiresAt() {
+    return this.expiresAt;
+  }
+
+  /**
+   * Getter for time revoked in milliseconds since epoch.
+   *
+   * @return Time revoked in milliseconds since epoch, or null for rows revoked before it was
+   *         stored
+   */
+  public Long getRevokedAt() {
+    return this.revokedAt;
+  }
+}
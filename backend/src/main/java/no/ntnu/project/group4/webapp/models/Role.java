@@ -5,8 +5,10 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -21,7 +23,12 @@ import java.util.Set;
 public class Role {
   @Schema(description = "Unique ID")
   @Id
-  @GeneratedValue
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "role_seq")
+  @SequenceGenerator(
+      name = "role_seq",
+      sequenceName = "role_seq",
+      allocationSize = 50
+  )
   private Long id;
   @Schema(description = "Role name")
   private String name;
@@ -1,8 +1,11 @@
 package no.ntnu.project.group4.webapp.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -11,23 +14,35 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import java.sql.Date;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Set;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * The User class represents the entity class for the user entity.
  *
+ * <p>Emails are stored trimmed and in lower case, and are unique.</p>
+ *
  * <p>The class uses JPA with annotations for ORM operations.</p>
  */
 @Entity
-@Table(name = "user")
+@Table(name = "user",
+    uniqueConstraints = @UniqueConstraint(name = "uk_user_email", columnNames = "email")
+)
 @Schema(description = "A user entity, representing a specific user")
 public class User {
   @Schema(description = "Unique ID")
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+  @SequenceGenerator(
+      name = "user_seq",
+      sequenceName = "user_seq",
+      allocationSize = 50
+  )
   private Long id;
   @Schema(description = "First name of user")
   private String firstName;
@@ -43,6 +58,12 @@ public class User {
   private Date dateOfBirth;
   @Schema(description = "Active status of user")
   private boolean active = true;
+  @Schema(description = "Security version of user, increased when the password, roles or active "
+                      + "status of the user change")
+  @JsonIgnore
+  @Column(nullable = false)
+  @ColumnDefault("0")
+  private long securityVersion;
   @Schema(description = "Roles the user has")
   @ManyToMany(fetch = FetchType.EAGER)
   @JoinTable(name = "user_role",
@@ -87,7 +108,7 @@ public class User {
               Date dateOfBirth) {
     this.firstName = firstName;
     this.lastName = lastName;
-    this.email = email;
+    this.email = normalizeEmail(email);
     this.phoneNumber = phoneNumber;
     this.password = password;
     this.dateOfBirth = dateOfBirth;
@@ -162,7 +183,17 @@ public class User {
    * @param email The specified email
    */
   public void setEmail(String email) {
-    this.email = email;
+    this.email = normalizeEmail(email);
+  }
+
+  /**
+   * Returns the specified email trimmed and in lower case, the form emails are stored in.
+   *
+   * @param email The specified email
+   * @return The specified email trimmed and in lower case, or null if the email is null
+   */
+  public static String normalizeEmail(String email) {
+    return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
   }
 
   /**
@@ -237,6 +268,23 @@ public class User {
     this.active = active;
   }
 
+  /**
+   * Getter for security version.
+   *
+   * @return Security version
+   */
+  public long getSecurityVersion() {
+    return this.securityVersion;
+  }
+
+  /**
+   * Increases the security version of the user. Tokens issued before the increase are no longer
+   * accepted.
+   */
+  public void increaseSecurityVersion() {
+    this.securityVersion++;
+  }
+
   /**
    * Getter for roles.
    *
@@ -1,7 +1,13 @@
 package no.ntnu.project.group4.webapp.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import no.ntnu.project.group4.webapp.models.Car;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +15,33 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface CarRepository extends CrudRepository<Car, Long> {
+  /**
+   * Returns the IDs of the cars with an ID greater than the specified cursor, sorted by ID.
+   *
+   * @param after The specified cursor
+   * @param limit The specified maximum number of IDs
+   * @return The IDs of the cars after the specified cursor
+   */
+  @Query("SELECT c.id FROM Car c WHERE c.id > :after ORDER BY c.id")
+  List<Long> findIdsAfter(@Param("after") long after, Limit limit);
+
+  /**
+   * Returns the cars with the specified IDs with their configurations fetched in the same query.
+   *
+   * @param ids The specified IDs
+   * @return The cars with the specified IDs with their configurations
+   */
+  @Query("SELECT DISTINCT c FROM Car c LEFT JOIN FETCH c.configurations WHERE c.id IN :ids "
+       + "ORDER BY c.id")
+  List<Car> findWithConfigurationsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Returns the car with the specified ID with its configurations fetched in the same query
+   * regardless of if it exists or not.
+   *
+   * @param id The specified ID
+   * @return The car with the specified ID regardless of if it exists or not
+   */
+  @Query("SELECT c FROM Car c LEFT JOIN FETCH c.configurations WHERE c.id = :id")
+  Optional<Car> findWithConfigurationsById(@Param("id") Long id);
 }
@@ -1,7 +1,12 @@
 package no.ntnu.project.group4.webapp.repositories;
 
+import java.util.List;
+import java.util.Optional;
 import no.ntnu.project.group4.webapp.models.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +14,24 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ConfigurationRepository extends CrudRepository<Configuration, Long> {
+  /**
+   * Returns the configurations with an ID greater than the specified cursor with their car fetched
+   * in the same query, sorted by ID.
+   *
+   * @param after The specified cursor
+   * @param limit The specified maximum number of configurations
+   * @return The configurations after the specified cursor with their car
+   */
+  @Query("SELECT c FROM Configuration c JOIN FETCH c.car WHERE c.id > :after ORDER BY c.id")
+  List<Configuration> findWithCarAfter(@Param("after") long after, Limit limit);
+
+  /**
+   * Returns the configuration with the specified ID with its car fetched in the same query
+   * regardless of if it exists or not.
+   *
+   * @param id The specified ID
+   * @return The configuration with the specified ID regardless of if it exists or not
+   */
+  @Query("SELECT c FROM Configuration c JOIN FETCH c.car WHERE c.id = :id")
+  Optional<Configuration> findWithCarById(@Param("id") Long id);
 }
@@ -1,5 +1,8 @@
 package no.ntnu.project.group4.webapp.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import no.ntnu.project.group4.webapp.models.Configuration;
 import no.ntnu.project.group4.webapp.models.ExtraFeature;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
@@ -9,4 +12,11 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ExtraFeatureRepository extends CrudRepository<ExtraFeature, Long> {
+  /**
+   * Returns all extra features belonging to any of the specified configurations.
+   *
+   * @param configurations The specified configurations
+   * @return All extra features belonging to any of the specified configurations
+   */
+  List<ExtraFeature> findByConfigurationInOrderByIdAsc(Collection<Configuration> configurations);
 }
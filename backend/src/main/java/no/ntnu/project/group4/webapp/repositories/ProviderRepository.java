@@ -1,7 +1,15 @@
 package no.ntnu.project.group4.webapp.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import no.ntnu.project.group4.webapp.dto.ProviderOfferDto;
+import no.ntnu.project.group4.webapp.models.Configuration;
 import no.ntnu.project.group4.webapp.models.Provider;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +17,114 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ProviderRepository extends CrudRepository<Provider, Long> {
+  /**
+   * Returns all providers belonging to any of the specified configurations.
+   *
+   * @param configurations The specified configurations
+   * @return All providers belonging to any of the specified configurations
+   */
+  List<Provider> findByConfigurationInOrderByIdAsc(Collection<Configuration> configurations);
+
+  /**
+   * Returns all visible providers belonging to any of the specified configurations.
+   *
+   * @param configurations The specified configurations
+   * @return All visible providers belonging to any of the specified configurations
+   */
+  List<Provider> findByConfigurationInAndVisibleTrueOrderByIdAsc(
+      Collection<Configuration> configurations);
+
+  /**
+   * Returns the providers with an ID greater than the specified cursor with their configuration
+   * and car fetched in the same query, sorted by ID.
+   *
+   * @param after The specified cursor
+   * @param limit The specified maximum number of providers
+   * @return The providers after the specified cursor
+   */
+  @Query("SELECT p FROM Provider p JOIN FETCH p.configuration c JOIN FETCH c.car "
+       + "WHERE p.id > :after ORDER BY p.id")
+  List<Provider> findWithConfigurationAfter(@Param("after") long after, Limit limit);
+
+  /**
+   * Returns the visible providers with an ID greater than the specified cursor with their
+   * configuration and car fetched in the same query, sorted by ID.
+   *
+   * @param after The specified cursor
+   * @param limit The specified maximum number of providers
+   * @return The visible providers after the specified cursor
+   */
+  @Query("SELECT p FROM Provider p JOIN FETCH p.configuration c JOIN FETCH c.car "
+       + "WHERE p.visible = true AND p.id > :after ORDER BY p.id")
+  List<Provider> findVisibleWithConfigurationAfter(@Param("after") long after, Limit limit);
+
+  /**
+   * Returns the provider with the specified ID with its configuration and car fetched in the same
+   * query regardless of if it exists or not.
+   *
+   * @param id The specified ID
+   * @return The provider with the specified ID regardless of if it exists or not
+   */
+  @Query("SELECT p FROM Provider p JOIN FETCH p.configuration c JOIN FETCH c.car "
+       + "WHERE p.id = :id")
+  Optional<Provider> findWithConfigurationById(@Param("id") Long id);
+
+  /**
+   * Returns the providers with the specified IDs that exist, with their configurations and cars
+   * fetched in the same query.
+   *
+   * @param ids The specified IDs
+   * @return The providers with the specified IDs that exist
+   */
+  @Query("SELECT p FROM Provider p JOIN FETCH p.configuration c JOIN FETCH c.car "
+       + "WHERE p.id IN :ids")
+  List<Provider> findWithConfigurationByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Locks the row of the provider with the specified ID until the current transaction ends, and
+   * returns the ID if the provider exists. Bookings of the provider are serialized on this lock
+   * across all application instances.
+   *
+   * @param id The specified ID
+   * @return The specified ID if the provider exists
+   */
+  @Query(value = "SELECT id FROM provider WHERE id = :id FOR UPDATE", nativeQuery = true)
+  Optional<Long> lockById(@Param("id") Long id);
+
+  /**
+   * Locks the rows of the providers with the specified IDs until the current transaction ends, in
+   * ascending ID order so two transactions locking overlapping sets of providers cannot deadlock,
+   * and returns the IDs of the providers that exist.
+   *
+   * @param ids The specified IDs
+   * @return The IDs of the providers that exist, in ascending order
+   */
+  @Query(value = "SELECT id FROM provider WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+         nativeQuery = true)
+  List<Long> lockAllById(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Returns offers for all visible and available providers matching the specified filters.
+   * Filters that are null are ignored.
+   *
+   * @param location The specified location
+   * @param minPrice The specified minimum price
+   * @param maxPrice The specified maximum price
+   * @param seats    The specified minimum number of seats
+   * @return Offers for all matching providers
+   */
+  @Query("SELECT new no.ntnu.project.group4.webapp.dto.ProviderOfferDto("
+       + "p.id, p.name, p.price, p.location, c.id, c.name, c.fuelType, c.transmissionType, "
+       + "c.numberOfSeats, car.id, car.make, car.model, car.year) "
+       + "FROM Provider p JOIN p.configuration c JOIN c.car car "
+       + "WHERE p.visible = true AND p.available = true "
+       + "AND (:location IS NULL OR LOWER(p.location) = LOWER(:location)) "
+       + "AND (:minPrice IS NULL OR p.price >= :minPrice) "
+       + "AND (:maxPrice IS NULL OR p.price <= :maxPrice) "
+       + "AND (:seats IS NULL OR c.numberOfSeats >= :seats) "
+       + "ORDER BY p.price, p.id")
+  List<ProviderOfferDto> findOffers(@Param("location") String location,
+                                    @Param("minPrice") Integer minPrice,
+                                    @Param("maxPrice") Integer maxPrice,
+                                    @Param("seats") Integer seats);
 }
@@ -1,6 +1,14 @@
 package no.ntnu.project.group4.webapp.repositories;
 
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+import no.ntnu.project.group4.webapp.dto.ReceiptExportDto;
 import no.ntnu.project.group4.webapp.models.Receipt;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +17,27 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ReceiptRepository extends CrudRepository<Receipt, Long> {
+  /**
+   * Returns the receipts with an ID greater than the specified ID, sorted by ID.
+   *
+   * @param id    The specified ID
+   * @param limit The specified maximum number of receipts
+   * @return The receipts with an ID greater than the specified ID
+   */
+  List<Receipt> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+  /**
+   * Returns a stream of every receipt in the database as export rows, sorted by ID. The fetch size
+   * of Integer.MIN_VALUE makes MySQL stream the rows one at a time instead of reading the whole
+   * result into memory, and the rows are never attached to the persistence context, so the stream
+   * can be consumed in constant memory. The stream must be consumed inside a transaction and
+   * closed afterwards.
+   *
+   * @return A stream of every receipt in the database as export rows
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+  @Query("SELECT new no.ntnu.project.group4.webapp.dto.ReceiptExportDto("
+       + "r.id, r.carName, r.providerName, r.location, r.startDate, r.endDate, r.totalPrice, "
+       + "u.email) FROM Receipt r LEFT JOIN r.user u ORDER BY r.id")
+  Stream<ReceiptExportDto> streamAllForExport();
 }
@@ -0,0 +1,64 @@
+package no.ntnu.project.group4.webapp.repositories;
+
+import java.util.Optional;
+import no.ntnu.project.group4.webapp.models.RefreshToken;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The RefreshTokenRepository class represents the repository class for the refresh token entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends CrudRepository<RefreshToken, Long> {
+  /**
+   * Returns the refresh token with the specified token hash regardless of if it exists or not.
+   *
+   * @param tokenHash The specified token hash
+   * @return The refresh token with the specified token hash regardless of if it exists or not
+   */
+  Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+  /**
+   * Marks the refresh token with the specified ID as used if it is not used already. Only one of
+   * several concurrent calls for the same refresh token succeeds.
+   *
+   * @param id The specified ID
+   * @return 1 if the refresh token was marked as used or 0 if it was used already
+   */
+  @Modifying
+  @Query("UPDATE RefreshToken r SET r.used = true WHERE r.id = :id AND r.used = false")
+  int markUsed(@Param("id") Long id);
+
+  /**
+   * Deletes all refresh tokens in the family with the specified family ID.
+   *
+   * @param familyId The specified family ID
+   * @return The number of deleted refresh tokens
+   */
+  @Modifying
+  @Query("DELETE FROM RefreshToken r WHERE r.familyId = :familyId")
+  int deleteFamily(@Param("familyId") String familyId);
+
+  /**
+   * Deletes all refresh tokens issued to the user with the specified ID.
+   *
+   * @param userId The specified user ID
+   * @return The number of deleted refresh tokens
+   */
+  @Modifying
+  @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+  int deleteByUserId(@Param("userId") Long userId);
+
+  /**
+   * Deletes all refresh tokens that expired before the specified time.
+   *
+   * @param now The specified time in milliseconds since epoch
+   * @return The number of deleted refresh tokens
+   */
+  @Modifying
+  @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+  int deleteExpired(@Param("now") long now);
+}
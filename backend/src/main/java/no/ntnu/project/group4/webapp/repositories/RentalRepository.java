@@ -1,7 +1,19 @@
 package no.ntnu.project.group4.webapp.repositories;
 
+import jakarta.persistence.QueryHint;
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import no.ntnu.project.group4.webapp.dto.RentalExportDto;
+import no.ntnu.project.group4.webapp.models.Provider;
 import no.ntnu.project.group4.webapp.models.Rental;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +21,94 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface RentalRepository extends CrudRepository<Rental, Long> {
+  /**
+   * Returns the rentals with an ID greater than the specified ID, sorted by ID.
+   *
+   * @param id    The specified ID
+   * @param limit The specified maximum number of rentals
+   * @return The rentals with an ID greater than the specified ID
+   */
+  List<Rental> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+  /**
+   * Returns a stream of every rental in the database as export rows, sorted by ID. The fetch size
+   * of Integer.MIN_VALUE makes MySQL stream the rows one at a time instead of reading the whole
+   * result into memory, and the rows are never attached to the persistence context, so the stream
+   * can be consumed in constant memory. The stream must be consumed inside a transaction and
+   * closed afterwards.
+   *
+   * @return A stream of every rental in the database as export rows
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+  @Query("SELECT new no.ntnu.project.group4.webapp.dto.RentalExportDto("
+       + "r.id, r.startDate, r.endDate, p.id, u.email) "
+       + "FROM Rental r LEFT JOIN r.provider p LEFT JOIN r.user u ORDER BY r.id")
+  Stream<RentalExportDto> streamAllForExport();
+
+  /**
+   * Returns the period of every rental in the database without loading the rentals themselves.
+   *
+   * @return The period of every rental in the database
+   */
+  @Query("SELECT r.id AS id, r.provider.id AS providerId, r.startDate AS startDate, "
+       + "r.endDate AS endDate FROM Rental r")
+  List<RentalPeriod> findAllPeriods();
+
+  /**
+   * Returns the period of every rental belonging to any of the specified providers without
+   * loading the rentals themselves.
+   *
+   * @param providers The specified providers
+   * @return The period of every rental belonging to any of the specified providers
+   */
+  @Query("SELECT r.id AS id, r.provider.id AS providerId, r.startDate AS startDate, "
+       + "r.endDate AS endDate FROM Rental r WHERE r.provider IN :providers ORDER BY r.id")
+  List<RentalPeriod> findPeriodsByProviderIn(@Param("providers") Collection<Provider> providers);
+
+  /**
+   * Checks if the provider with the specified ID has a rental other than the rental with the
+   * specified ID overlapping the period between the specified start and end date. Both dates are
+   * inclusive.
+   *
+   * @param providerId The specified provider ID
+   * @param start      The specified start date
+   * @param end        The specified end date
+   * @param rentalId   The specified ID of the rental to ignore, or null to ignore none
+   * @return True if an overlapping rental exists or false otherwise
+   */
+  @Query("SELECT COUNT(r) > 0 FROM Rental r WHERE r.provider.id = :providerId "
+       + "AND r.startDate <= :end AND r.endDate >= :start "
+       + "AND (:rentalId IS NULL OR r.id <> :rentalId)")
+  boolean existsOverlapping(@Param("providerId") Long providerId, @Param("start") Date start,
+                            @Param("end") Date end, @Param("rentalId") Long rentalId);
+
+  /**
+   * Returns the period of every rental belonging to any of the providers with the specified IDs
+   * that overlaps the period between the specified start and end date, without loading the
+   * rentals themselves. Both dates are inclusive.
+   *
+   * @param providerIds The specified provider IDs
+   * @param start       The specified start date
+   * @param end         The specified end date
+   * @return The period of every overlapping rental of the providers with the specified IDs
+   */
+  @Query("SELECT r.id AS id, r.provider.id AS providerId, r.startDate AS startDate, "
+       + "r.endDate AS endDate FROM Rental r WHERE r.provider.id IN :providerIds "
+       + "AND r.startDate <= :end AND r.endDate >= :start")
+  List<RentalPeriod> findPeriodsOverlapping(@Param("providerIds") Collection<Long> providerIds,
+                                            @Param("start") Date start, @Param("end") Date end);
+
+  /**
+   * The RentalPeriod interface represents a projection of a rental containing only the data
+   * needed to know when the provider of the rental is booked.
+   */
+  interface RentalPeriod {
+    Long getId();
+
+    Long getProviderId();
+
+    Date getStartDate();
+
+    Date getEndDate();
+  }
 }
@@ -0,0 +1,43 @@
+package no.ntnu.project.group4.webapp.repositories;
+
+import java.util.List;
+import no.ntnu.project.group4.webapp.models.RevokedToken;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The RevokedTokenRepository class represents the repository class for the revoked token entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends CrudRepository<RevokedToken, String> {
+  /**
+   * Returns the token IDs of all revoked tokens that have not expired at the specified time.
+   *
+   * @param now The specified time in milliseconds since epoch
+   * @return The token IDs of all revoked tokens that have not expired
+   */
+  @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt >= :now")
+  List<String> findTokenIdsNotExpired(@Param("now") long now);
+
+  /**
+   * Returns the token IDs of all revoked tokens revoked at or after the specified time.
+   *
+   * @param since The specified time in milliseconds since epoch
+   * @return The token IDs of all revoked tokens revoked at or after the specified time
+   */
+  @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.revokedAt >= :since")
+  List<String> findTokenIdsRevokedSince(@Param("since") long since);
+
+  /**
+   * Deletes all revoked tokens that expired before the specified time.
+   *
+   * @param now The specified time in milliseconds since epoch
+   * @return The number of deleted revoked tokens
+   */
+  @Modifying
+  @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+  int deleteExpired(@Param("now") long now);
+}
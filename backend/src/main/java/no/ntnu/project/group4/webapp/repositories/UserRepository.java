@@ -1,8 +1,12 @@
 package no.ntnu.project.group4.webapp.repositories;
 
+import java.util.List;
 import java.util.Optional;
 import no.ntnu.project.group4.webapp.models.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,4 +15,39 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
+
+  /**
+   * Checks if a user with the specified email exists, without loading the user.
+   *
+   * @param email The specified email
+   * @return True if a user with the specified email exists or false otherwise
+   */
+  boolean existsByEmail(String email);
+
+  /**
+   * Returns the emails of all users.
+   *
+   * @return The emails of all users
+   */
+  @Query("SELECT u.email FROM User u")
+  List<String> findAllEmails();
+
+  /**
+   * Returns the users with an ID greater than the specified ID, sorted by ID.
+   *
+   * @param id    The specified ID
+   * @param limit The specified maximum number of users
+   * @return The users with an ID greater than the specified ID
+   */
+  List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+  /**
+   * Returns the email of the user with the specified ID regardless of if it exists or not. Only
+   * the email column is read.
+   *
+   * @param id The specified ID
+   * @return The email of the user with the specified ID regardless of if it exists or not
+   */
+  @Query("SELECT u.email FROM User u WHERE u.id = :id")
+  Optional<String> findEmailById(@Param("id") Long id);
 }
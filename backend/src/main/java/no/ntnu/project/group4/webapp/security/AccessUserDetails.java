@@ -16,10 +16,12 @@ import org.springframework.security.core.userdetails.UserDetails;
  * The class is needed by the AccessUserService class.
  */
 public class AccessUserDetails implements UserDetails {
+  private final Long id;
   // The email of the user
   private final String username;
   private final String password;
   private final boolean isActive;
+  private final long securityVersion;
   private final List<GrantedAuthority> authorities = new LinkedList<>();
 
   /**
@@ -28,12 +30,36 @@ public class AccessUserDetails implements UserDetails {
    * @param user The specified user to copy data from
    */
   public AccessUserDetails(User user) {
+    this.id = user.getId();
     this.username = user.getEmail();
     this.password = user.getPassword();
     this.isActive = user.isActive();
+    this.securityVersion = user.getSecurityVersion();
     this.convertRoles(user.getRoles());
   }
 
+  /**
+   * Constructs an instance of the AccessUserDetails class from the claims of a verified JWT token.
+   * The user details have no password and are only used to authorize requests that do not read
+   * the user from the database.
+   *
+   * @param id              The specified user ID
+   * @param username        The specified username
+   * @param securityVersion The specified security version
+   * @param roles           The specified role names
+   */
+  public AccessUserDetails(Long id, String username, long securityVersion,
+                           Collection<String> roles) {
+    this.id = id;
+    this.username = username;
+    this.password = null;
+    this.isActive = true;
+    this.securityVersion = securityVersion;
+    for (String role : roles) {
+      this.authorities.add(new SimpleGrantedAuthority(role));
+    }
+  }
+
   /**
    * Converts the specified roles the user has into instances of the SimpleGrantedAuthority class.
    *
@@ -46,6 +72,15 @@ public class AccessUserDetails implements UserDetails {
     }
   }
 
+  /**
+   * Getter for ID.
+   *
+   * @return ID
+   */
+  public Long getId() {
+    return this.id;
+  }
+
   /**
    * Getter for username.
    *
@@ -76,6 +111,15 @@ public class AccessUserDetails implements UserDetails {
     return this.authorities;
   }
 
+  /**
+   * Getter for security version.
+   *
+   * @return Security version
+   */
+  public long getSecurityVersion() {
+    return this.securityVersion;
+  }
+
   /**
    * Checks if the user is not expired.
    *
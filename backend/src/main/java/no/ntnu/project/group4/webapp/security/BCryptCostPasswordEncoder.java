@@ -0,0 +1,68 @@
+package no.ntnu.project.group4.webapp.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * The BCryptCostPasswordEncoder class represents a BCrypt password encoder with a configurable
+ * cost factor.
+ *
+ * <p>A stored hash with any other cost factor than the configured one, higher or lower, needs an
+ * upgrade. Spring Security rehashes the password with the configured cost after a successful
+ * login, so changing the cost factor moves stored hashes to it as users log in.</p>
+ */
+public class BCryptCostPasswordEncoder extends BCryptPasswordEncoder {
+  private final int strength;
+
+  /**
+   * Constructs an instance of the BCryptCostPasswordEncoder class.
+   *
+   * @param strength The specified cost factor, between 4 and 31
+   */
+  public BCryptCostPasswordEncoder(int strength) {
+    super(strength);
+    this.strength = strength;
+  }
+
+  /**
+   * Getter for cost factor.
+   *
+   * @return Cost factor
+   */
+  public int getStrength() {
+    return this.strength;
+  }
+
+  /**
+   * Checks if the specified encoded password should be encoded again with the configured cost
+   * factor.
+   *
+   * @param encodedPassword The specified encoded password
+   * @return True if the cost factor of the encoded password differs from the configured one
+   */
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    int cost = getCost(encodedPassword);
+    return cost > 0 && cost != this.strength;
+  }
+
+  /**
+   * Returns the cost factor of the specified BCrypt hash, or 0 if it is not a BCrypt hash. A hash
+   * has the form $2a$10$..., where 10 is the cost factor.
+   *
+   * @param encodedPassword The specified BCrypt hash
+   * @return The cost factor of the specified BCrypt hash or 0 if it is not a BCrypt hash
+   */
+  public static int getCost(String encodedPassword) {
+    if (encodedPassword == null || encodedPassword.length() < 7
+        || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$'
+        || encodedPassword.charAt(6) != '$') {
+      return 0;
+    }
+    char tens = encodedPassword.charAt(4);
+    char ones = encodedPassword.charAt(5);
+    if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+      return 0;
+    }
+    return (tens - '0') * 10 + (ones - '0');
+  }
+}
@@ -1,5 +1,6 @@
 package no.ntnu.project.group4.webapp.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
@@ -7,14 +8,16 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import no.ntnu.project.group4.webapp.services.PrincipalCache;
+import no.ntnu.project.group4.webapp.services.RevocationStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -28,9 +31,21 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
   @Autowired
-  private UserDetailsService userDetailsService;
+  private PrincipalCache principalCache;
   @Autowired
   private JwtUtil jwtUtil;
+  @Autowired
+  private RevocationStore revocationStore;
+
+  /**
+   * Name of the request attribute holding the verified claims of the JWT token of the request.
+   */
+  public static final String CLAIMS_ATTRIBUTE = "no.ntnu.project.group4.webapp.security.claims";
+
+  // Paths of the public catalog, where reads are authorized from the claims of the token.
+  private static final List<String> PUBLIC_CATALOG_PATHS = List.of(
+      "/api/cars", "/api/configurations", "/api/extrafeatures", "/api/providers", "/api/search"
+  );
 
   private static final Logger logger = LoggerFactory.getLogger(
       JwtRequestFilter.class.getSimpleName()
@@ -47,27 +62,64 @@ public class JwtRequestFilter extends OncePerRequestFilter {
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                   FilterChain filterChain) throws ServletException, IOException {
     String jwtToken = this.getJwtToken(request);
-    String username = jwtToken != null ? this.getUsernameFrom(jwtToken) : null;
-    if (username != null && notAuthenticatedYet()) {
-      UserDetails userDetails = this.getUserDetailsFromDatabase(username);
-      if (jwtUtil.validateToken(jwtToken, userDetails)) {
+    Claims claims = jwtToken != null ? this.getClaimsFrom(jwtToken) : null;
+    if (claims != null && this.isRevoked(claims)) {
+      logger.warn("Revoked JWT used by " + claims.getSubject());
+      claims = null;
+    }
+    if (claims != null && claims.getSubject() != null && notAuthenticatedYet()) {
+      UserDetails userDetails = isPublicCatalogRead(request)
+          ? this.getUserDetailsFromClaims(claims)
+          : this.getUserDetails(claims);
+      if (jwtUtil.validateToken(claims, userDetails)) {
         registerUserAsAuthenticated(request, userDetails);
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
       }
     }
     filterChain.doFilter(request, response);
   }
 
   /**
-   * Returns the user details of the user with the specified username from the database.
+   * Checks if the token with the specified claims is revoked. The revocation store only reads the
+   * database when its Bloom filter cannot rule the token out.
    *
-   * @param username The specified username
-   * @return The user details of the user with the specified username from the database
+   * @param claims The specified verified claims
+   * @return True if the token is revoked or false otherwise
    */
-  private UserDetails getUserDetailsFromDatabase(String username) {
-    UserDetails userDetails = null;
-    try {
-      userDetails = userDetailsService.loadUserByUsername(username);
-    } catch (UsernameNotFoundException e) {
+  private boolean isRevoked(Claims claims) {
+    return revocationStore.isRevoked(jwtUtil.getTokenId(claims), jwtUtil.getUserId(claims),
+                                     jwtUtil.getSecurityVersion(claims));
+  }
+
+  /**
+   * Returns the user details of the user in the specified claims without reading the database.
+   * A cached principal with the same security version as the token is used if there is one,
+   * otherwise the user details are built from the signed claims. Tokens without the needed claims
+   * fall back to the principal cache.
+   *
+   * @param claims The specified verified claims
+   * @return The user details of the user in the specified claims or null if not found
+   */
+  private UserDetails getUserDetailsFromClaims(Claims claims) {
+    AccessUserDetails userDetails = principalCache.getIfPresent(claims.getSubject());
+    if (userDetails == null
+        || userDetails.getSecurityVersion() != jwtUtil.getSecurityVersion(claims)) {
+      userDetails = jwtUtil.getUserDetails(claims);
+    }
+    return userDetails != null ? userDetails : this.getUserDetails(claims);
+  }
+
+  /**
+   * Returns the user details of the user in the specified claims from the principal cache, which
+   * only reads the database on a miss.
+   *
+   * @param claims The specified verified claims
+   * @return The user details of the user in the specified claims or null if not found
+   */
+  private UserDetails getUserDetails(Claims claims) {
+    String username = claims.getSubject();
+    UserDetails userDetails = principalCache.get(username, jwtUtil.getSecurityVersion(claims));
+    if (userDetails == null) {
       logger.warn("User " + username + " not found in the database");
     }
     return userDetails;
@@ -100,21 +152,43 @@ public class JwtRequestFilter extends OncePerRequestFilter {
   }
 
   /**
-   * Returns the username of the user extracted from the specified JWT token.
+   * Returns the verified claims of the specified JWT token, or null if the token is invalid or
+   * expired. The token is only parsed and verified here.
    *
    * @param jwtToken The specified JWT token
-   * @return The username of the user extracted from the specified JWT token
+   * @return The verified claims of the specified JWT token or null if it is invalid
    */
-  private String getUsernameFrom(String jwtToken) {
-    String username = null;
+  private Claims getClaimsFrom(String jwtToken) {
+    Claims claims = null;
     try {
-      username = jwtUtil.extractUsername(jwtToken);
+      claims = jwtUtil.parseClaims(jwtToken);
     } catch (MalformedJwtException e) {
       logger.warn("Malformed JWT: " + e.getMessage());
     } catch (JwtException e) {
       logger.warn("Error in the JWT token: " + e.getMessage());
     }
-    return username;
+    return claims;
+  }
+
+  /**
+   * Checks if the specified request reads the public catalog. These requests only need the roles
+   * of the user to choose the catalog view, so they are authorized from the signed claims.
+   *
+   * @param request The specified request
+   * @return True if the specified request reads the public catalog or false otherwise
+   */
+  private static boolean isPublicCatalogRead(HttpServletRequest request) {
+    if (!HttpMethod.GET.matches(request.getMethod())
+        && !HttpMethod.HEAD.matches(request.getMethod())) {
+      return false;
+    }
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    for (String catalogPath : PUBLIC_CATALOG_PATHS) {
+      if (path.equals(catalogPath) || path.startsWith(catalogPath + "/")) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -1,20 +1,30 @@
 package no.ntnu.project.group4.webapp.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.List;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 /**
  * The JwtUtil class represents a utility class for handling JWT tokens.
  *
+ * <p>The signing key and the parser are built once at startup. A token is parsed and verified once
+ * per request, and the verified claims are passed to the methods reading from them.</p>
+ *
  * <p>Code from https://youtu.be/X80nJ5T7YpE.</p>
  */
 @Component
@@ -22,102 +32,159 @@ public class JwtUtil {
   @Value("${jwt_secret_key}")
   private String secretKey;
 
+  // Time from a JWT token is issued until it expires.
+  public static final Duration TIME_TO_LIVE = Duration.ofHours(1);
+
   // Key inside JWT token where roles are stored.
   private static final String ROLE_KEY = "roles";
+  // Key inside JWT token where the ID of the user is stored.
+  private static final String USER_ID_KEY = "uid";
+  // Key inside JWT token where the security version of the user is stored.
+  private static final String SECURITY_VERSION_KEY = "sv";
+
+  private SecretKey signingKey;
+  private JwtParser parser;
 
   /**
-   * Getter for secret key.
-   *
-   * @return Secret key
+   * Builds the signing key and the parser.
    */
-  private SecretKey getSigningKey() {
+  @PostConstruct
+  public void init() {
     byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-    return new SecretKeySpec(keyBytes, 0, keyBytes.length, "HmacSHA256");
+    this.signingKey = new SecretKeySpec(keyBytes, 0, keyBytes.length, "HmacSHA256");
+    this.parser = Jwts.parser().verifyWith(this.signingKey).build();
   }
 
   /**
-   * Returns a JWT token for an authenticated user generated from the specified user details.
+   * Returns a JWT token for an authenticated user generated from the specified user details. The
+   * roles are stored as a list of role names, and every token gets a unique token ID so it can be
+   * revoked.
    *
    * @param userDetails The specified user details
    * @return A JWT token for an authenticated user
    */
   public String generateToken(UserDetails userDetails) {
     final long timeNow = System.currentTimeMillis();
-    final long millisecondsInHour = 60 * 60 * 1000;
-    final long timeAfterOneHour = timeNow + millisecondsInHour;
+    final long timeAfterOneHour = timeNow + TIME_TO_LIVE.toMillis();
 
-    return Jwts.builder()
+    List<String> roles = new ArrayList<>();
+    for (GrantedAuthority authority : userDetails.getAuthorities()) {
+      roles.add(authority.getAuthority());
+    }
+    JwtBuilder builder = Jwts.builder()
+        .id(UUID.randomUUID().toString())
         .subject(userDetails.getUsername())
-        .claim(ROLE_KEY, userDetails.getAuthorities())
+        .claim(ROLE_KEY, roles);
+    if (userDetails instanceof AccessUserDetails accessUserDetails) {
+      builder.claim(USER_ID_KEY, accessUserDetails.getId())
+          .claim(SECURITY_VERSION_KEY, accessUserDetails.getSecurityVersion());
+    }
+
+    return builder
         .issuedAt(new Date(timeNow))
         .expiration(new Date(timeAfterOneHour))
-        .signWith(getSigningKey())
+        .signWith(this.signingKey)
         .compact();
   }
 
   /**
-   * Returns a username from the specified JWT token.
+   * Returns the verified claims of the specified JWT token. Tokens with an invalid signature and
+   * expired tokens are rejected.
    *
    * @param token The specified JWT token
-   * @return A username
+   * @return The verified claims of the specified JWT token
+   * @throws JwtException If the specified JWT token is invalid or expired
    */
-  public String extractUsername(String token) throws JwtException {
-    return extractClaim(token, Claims::getSubject);
+  public Claims parseClaims(String token) throws JwtException {
+    return this.parser.parseSignedClaims(token).getPayload();
   }
 
   /**
-   * Checks if the specified JWT token is valid for the user specified in the specified user
-   * details.
+   * Returns the token ID from the specified claims, or null if the token was issued before the
+   * token ID was added.
    *
-   * @param token       The specified JWT token
-   * @param userDetails The specified user details
-   * @return True if the token is valid and matches the current user or false otherwise
+   * @param claims The specified verified claims
+   * @return The token ID or null if it is not in the claims
    */
-  public boolean validateToken(String token, UserDetails userDetails) throws JwtException {
-    final String username = extractUsername(token);
-    return userDetails != null && username.equals(userDetails.getUsername())
-           && !isTokenExpired(token);
+  public String getTokenId(Claims claims) {
+    return claims.getId();
   }
 
   /**
-   * Returns the expiration date of the specified JWT token.
+   * Returns the ID of the user from the specified claims, or null if the token was issued before
+   * the ID was added.
    *
-   * @param token The specified JWT token
-   * @return The expiration date of the specified JWT token
+   * @param claims The specified verified claims
+   * @return The ID of the user or null if it is not in the claims
    */
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  public Long getUserId(Claims claims) {
+    Number userId = claims.get(USER_ID_KEY, Number.class);
+    return userId != null ? userId.longValue() : null;
   }
 
   /**
-   * Returns the claims of the specified JWT token with the specified claims resolver.
+   * Returns the security version of the user from the specified claims. Tokens issued before the
+   * security version was added have security version 0.
    *
-   * @param token          The specified JWT token
-   * @param claimsResolver The specified claims resolver
-   * @return The claims of the specified JWT token with the specified claims resolver
+   * @param claims The specified verified claims
+   * @return The security version of the user
    */
-  private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
+  public long getSecurityVersion(Claims claims) {
+    Number securityVersion = claims.get(SECURITY_VERSION_KEY, Number.class);
+    return securityVersion != null ? securityVersion.longValue() : 0L;
   }
 
   /**
-   * Returns all the claims of the specified JWT token.
+   * Returns user details built from the specified claims without reading the database, or null if
+   * the token was issued before the user ID and role names were added.
    *
-   * @param token The specified JWT token
-   * @return All the claims of the specified JWT token
+   * @param claims The specified verified claims
+   * @return User details built from the specified claims or null if the claims are incomplete
    */
-  private Claims extractAllClaims(String token) {
-    return Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload();
+  public AccessUserDetails getUserDetails(Claims claims) {
+    Long userId = this.getUserId(claims);
+    List<?> roleClaim = claims.get(ROLE_KEY, List.class);
+    if (userId == null || roleClaim == null) {
+      return null;
+    }
+    List<String> roles = new ArrayList<>();
+    for (Object role : roleClaim) {
+      if (!(role instanceof String roleName)) {
+        return null;
+      }
+      roles.add(roleName);
+    }
+    return new AccessUserDetails(userId, claims.getSubject(), this.getSecurityVersion(claims),
+                                 roles);
   }
 
   /**
-   * Checks if the specified JWT token is expired.
+   * Checks if the specified claims are valid for the user specified in the specified user details.
+   * A token issued to another user with the same email, or before the security version of the
+   * user was increased, is not valid.
    *
-   * @param token The specified JWT token
-   * @return True if the specified JWT token is expired or false otherwise
+   * @param claims      The specified verified claims
+   * @param userDetails The specified user details
+   * @return True if the claims are valid and match the current user or false otherwise
+   */
+  public boolean validateToken(Claims claims, UserDetails userDetails) {
+    return userDetails != null && claims.getSubject().equals(userDetails.getUsername())
+           && (!(userDetails instanceof AccessUserDetails accessUserDetails)
+               || this.matches(claims, accessUserDetails))
+           && !claims.getExpiration().before(new Date());
+  }
+
+  /**
+   * Checks if the user ID and the security version in the specified claims match the specified
+   * user details. Tokens issued before the user ID was added are only checked by security version.
+   *
+   * @param claims      The specified verified claims
+   * @param userDetails The specified user details
+   * @return True if the claims match the specified user details or false otherwise
    */
-  private Boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  private boolean matches(Claims claims, AccessUserDetails userDetails) {
+    Long userId = this.getUserId(claims);
+    return (userId == null || userId.equals(userDetails.getId()))
+           && userDetails.getSecurityVersion() == this.getSecurityVersion(claims);
   }
 }
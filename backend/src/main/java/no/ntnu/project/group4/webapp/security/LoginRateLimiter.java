@@ -0,0 +1,151 @@
+package no.ntnu.project.group4.webapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The LoginRateLimiter class represents the in-process rate limiter of login attempts.
+ *
+ * <p>Every login attempt costs a BCrypt verification, so attempts are limited before the
+ * password is checked. Each client IP address and each email has its own token bucket, and an
+ * attempt needs a token from both. A bucket holds a number of tokens and regains one token per
+ * refill interval. The buckets are kept in bounded caches, and a bucket that has not been used for
+ * long enough to be full again is dropped, since a new bucket behaves the same. Rejected attempts
+ * are counted in the "login.rejected" metric, tagged with the kind of bucket that rejected them,
+ * and the bucket caches are published as the "login.buckets.ip" and "login.buckets.email" cache
+ * metrics.</p>
+ */
+@Component
+public class LoginRateLimiter {
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${login.rate-limit.maximum-keys:100000}")
+  private long maximumKeys;
+  @Value("${login.rate-limit.ip.capacity:20}")
+  private int ipCapacity;
+  @Value("${login.rate-limit.ip.refill-interval:3s}")
+  private Duration ipRefillInterval;
+  @Value("${login.rate-limit.email.capacity:5}")
+  private int emailCapacity;
+  @Value("${login.rate-limit.email.refill-interval:12s}")
+  private Duration emailRefillInterval;
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private Cache<String, TokenBucket> ipBuckets;
+  private Cache<String, TokenBucket> emailBuckets;
+  private Counter ipRejections;
+  private Counter emailRejections;
+
+  /**
+   * Builds the bucket caches and registers the metrics.
+   */
+  @PostConstruct
+  public void init() {
+    this.ipBuckets = this.buildBuckets(this.ipCapacity, this.ipRefillInterval);
+    this.emailBuckets = this.buildBuckets(this.emailCapacity, this.emailRefillInterval);
+    CaffeineCacheMetrics.monitor(this.meterRegistry, this.ipBuckets, "login.buckets.ip");
+    CaffeineCacheMetrics.monitor(this.meterRegistry, this.emailBuckets, "login.buckets.email");
+    this.ipRejections = Counter.builder("login.rejected")
+        .description("Login attempts rejected by the rate limiter")
+        .tag("limit", "ip")
+        .register(this.meterRegistry);
+    this.emailRejections = Counter.builder("login.rejected")
+        .description("Login attempts rejected by the rate limiter")
+        .tag("limit", "email")
+        .register(this.meterRegistry);
+  }
+
+  /**
+   * Takes a token for a login attempt from the specified client IP address and with the specified
+   * email. The email is only charged if the client IP address is not limited.
+   *
+   * @param ipAddress The specified client IP address
+   * @param email     The specified email
+   * @return 0 if the attempt is allowed, otherwise the number of seconds until it may be retried
+   */
+  public long tryAcquire(String ipAddress, String email) {
+    long now = System.nanoTime();
+    long waitNanos = this.ipBuckets.get(String.valueOf(ipAddress),
+        key -> new TokenBucket(this.ipCapacity, this.ipRefillInterval, now)).tryConsume(now);
+    if (waitNanos > 0) {
+      this.ipRejections.increment();
+    } else {
+      String emailKey = email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+      waitNanos = this.emailBuckets.get(emailKey,
+          key -> new TokenBucket(this.emailCapacity, this.emailRefillInterval, now))
+          .tryConsume(now);
+      if (waitNanos > 0) {
+        this.emailRejections.increment();
+      }
+    }
+    // Rounded up to whole seconds, as sent in the Retry-After header
+    return (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+  }
+
+  /**
+   * Returns a bounded cache of token buckets with the specified capacity and refill interval.
+   *
+   * @param capacity       The specified capacity of each bucket
+   * @param refillInterval The specified time to regain one token
+   * @return A bounded cache of token buckets
+   */
+  private Cache<String, TokenBucket> buildBuckets(int capacity, Duration refillInterval) {
+    return Caffeine.newBuilder()
+        .maximumSize(this.maximumKeys)
+        .expireAfterAccess(refillInterval.multipliedBy(capacity))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * The TokenBucket class represents a token bucket of login attempts.
+   */
+  private static final class TokenBucket {
+    private final int capacity;
+    private final long refillNanos;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Constructs an instance of the TokenBucket class. The bucket starts full.
+     *
+     * @param capacity       The specified capacity
+     * @param refillInterval The specified time to regain one token
+     * @param now            The specified current time in nanoseconds
+     */
+    TokenBucket(int capacity, Duration refillInterval, long now) {
+      this.capacity = capacity;
+      this.refillNanos = Math.max(1L, refillInterval.toNanos());
+      this.tokens = capacity;
+      this.lastRefill = now;
+    }
+
+    /**
+     * Takes a token if there is one.
+     *
+     * @param now The specified current time in nanoseconds
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until there is one
+     */
+    synchronized long tryConsume(long now) {
+      this.tokens = Math.min(this.capacity,
+                             this.tokens + (double) (now - this.lastRefill) / this.refillNanos);
+      this.lastRefill = now;
+      if (this.tokens >= 1) {
+        this.tokens--;
+        return 0L;
+      }
+      return (long) Math.ceil((1 - this.tokens) * this.refillNanos);
+    }
+  }
+}
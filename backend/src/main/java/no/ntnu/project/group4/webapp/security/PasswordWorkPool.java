@@ -0,0 +1,96 @@
+package no.ntnu.project.group4.webapp.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The PasswordWorkPool class represents the dedicated thread pool for password hashing and
+ * verification.
+ *
+ * <p>BCrypt is slow on purpose, so running it on request threads lets a burst of logins starve
+ * every other request. Login and registration are instead run on this pool, which has a fixed
+ * number of threads and a bounded queue. When the queue is full new work is rejected at once, and
+ * the caller answers with 503 SERVICE UNAVAILABLE and a Retry-After header instead of waiting.
+ * Queue depth and pool usage are published as the "password" executor metrics, and the time spent
+ * on each piece of work as the "password.work" timer.</p>
+ */
+@Component
+public class PasswordWorkPool {
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${password.pool.threads:0}")
+  private int threads;
+  @Value("${password.pool.queue-capacity:64}")
+  private int queueCapacity;
+  @Value("${password.pool.retry-after-seconds:1}")
+  private int retryAfterSeconds;
+
+  private ThreadPoolExecutor executor;
+  private Timer workTimer;
+
+  /**
+   * Builds the thread pool and registers its metrics. A thread count of zero or less uses one
+   * thread per available processor.
+   */
+  @PostConstruct
+  public void init() {
+    int poolSize = this.threads > 0 ? this.threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "password-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                                           new ArrayBlockingQueue<>(this.queueCapacity),
+                                           threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    ExecutorServiceMetrics.monitor(this.meterRegistry, this.executor, "password");
+    this.workTimer = Timer.builder("password.work")
+        .description("Time spent hashing or verifying passwords")
+        .register(this.meterRegistry);
+  }
+
+  /**
+   * Shuts down the thread pool.
+   */
+  @PreDestroy
+  public void shutdown() {
+    this.executor.shutdown();
+  }
+
+  /**
+   * Returns a future completed with the result of the specified work once it has run on the pool.
+   *
+   * @param work The specified work
+   * @param <T>  The type of the result
+   * @return A future completed with the result of the specified work
+   * @throws RejectedExecutionException If the pool is saturated
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> work) throws RejectedExecutionException {
+    return CompletableFuture.supplyAsync(() -> this.workTimer.record(work), this.executor);
+  }
+
+  /**
+   * Getter for the number of seconds a rejected caller should wait before retrying.
+   *
+   * @return Number of seconds a rejected caller should wait before retrying
+   */
+  public int getRetryAfterSeconds() {
+    return this.retryAfterSeconds;
+  }
+}
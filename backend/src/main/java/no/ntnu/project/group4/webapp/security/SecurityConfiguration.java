@@ -1,6 +1,7 @@
 package no.ntnu.project.group4.webapp.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,7 +13,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -76,12 +76,18 @@ public class SecurityConfiguration {
         .authorizeHttpRequests(
           (auth) -> auth.requestMatchers("/api/providers/**").permitAll()
         )
+        .authorizeHttpRequests(
+          (auth) -> auth.requestMatchers("/api/search").permitAll()
+        )
         .authorizeHttpRequests(
           (auth) -> auth.requestMatchers("/api/rentals/**").permitAll()
         )
         .authorizeHttpRequests(
           (auth) -> auth.requestMatchers("/api/receipts/**").permitAll()
         )
+        .authorizeHttpRequests(
+          (auth) -> auth.requestMatchers("/api/checkout").permitAll()
+        )
         .authorizeHttpRequests(
           (auth) -> auth.requestMatchers("/api/users/**").permitAll()
         )
@@ -92,6 +98,12 @@ public class SecurityConfiguration {
         .authorizeHttpRequests(
           (auth) -> auth.requestMatchers("/api/register").permitAll()
         )
+        .authorizeHttpRequests(
+          (auth) -> auth.requestMatchers("/api/refresh").permitAll()
+        )
+        .authorizeHttpRequests(
+          (auth) -> auth.requestMatchers("/api/logout").permitAll()
+        )
         // API documentation is accessible
         .authorizeHttpRequests(
           (auth) -> auth.requestMatchers("/swagger-ui.html").permitAll()
@@ -105,6 +117,10 @@ public class SecurityConfiguration {
         .authorizeHttpRequests(
           (auth) -> auth.requestMatchers("/api-docs/**").permitAll()
         )
+        // Metrics are only accessible for admin users
+        .authorizeHttpRequests(
+          (auth) -> auth.requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
+        )
         // Allow HTTP OPTIONS requests - CORS pre-flight requests
         .authorizeHttpRequests(
           (auth) -> auth.requestMatchers(HttpMethod.OPTIONS).permitAll()
@@ -139,10 +155,15 @@ public class SecurityConfiguration {
   /**
    * This method is called to decide what encryption to use for password checking.
    *
+   * <p>The method is static, so the password encoder can be injected into the user service
+   * without creating this configuration first.</p>
+   *
+   * @param strength The specified BCrypt cost factor
    * @return The password encryptor
    */
   @Bean
-  public PasswordEncoder getPasswordEncoder() {
-    return new BCryptPasswordEncoder();
+  public static PasswordEncoder getPasswordEncoder(
+      @Value("${password.bcrypt.strength:10}") int strength) {
+    return new BCryptCostPasswordEncoder(strength);
   }
 }
@@ -15,22 +15,41 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * The AccessUserDetails class represents the provider for AccessUserDetails needed for
  * authentication.
+ *
+ * <p>The service also stores rehashed passwords. After a successful login with a password hashed
+ * with another BCrypt cost factor than the configured one, Spring Security hashes the password
+ * again and passes it to {@link #updatePassword(UserDetails, String)}.</p>
  */
 @Service
-public class AccessUserService implements UserDetailsService {
+public class AccessUserService implements UserDetailsService, UserDetailsPasswordService {
   private static final int MIN_PASSWORD_LENGTH = 8;
+  // Request attribute where the session user of the request is stored.
+  private static final String SESSION_USER_ATTRIBUTE =
+      AccessUserService.class.getName() + ".sessionUser";
   @Autowired
   UserRepository userRepository;
   @Autowired
   RoleRepository roleRepository;
+  @Autowired
+  private PrincipalCache principalCache;
+  @Autowired
+  private RevocationStore revocationStore;
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+  @Autowired
+  private EmailIndex emailIndex;
 
   /**
    * Returns the AccessUserDetails of the user with the specified username.
@@ -39,8 +58,9 @@ public class AccessUserService implements UserDetailsService {
    * @return The AccessUserDetails of the user with the specified username
    */
   @Override
+  @Transactional(readOnly = true)
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    Optional<User> user = userRepository.findByEmail(username);
+    Optional<User> user = userRepository.findByEmail(User.normalizeEmail(username));
     if (user.isPresent()) {
       return new AccessUserDetails(user.get());
     } else {
@@ -51,28 +71,71 @@ public class AccessUserService implements UserDetailsService {
   /**
    * Returns the user which is authenticated for the current session.
    *
+   * <p>The user is read by the ID in the authenticated principal at most once per request, and
+   * the same object is returned for the rest of the request. Requests without an authenticated
+   * user do not read the database.</p>
+   *
    * @return User object or null if no user has logged in
    */
+  @Transactional(readOnly = true)
   public User getSessionUser() {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes != null) {
+      Object sessionUser =
+          requestAttributes.getAttribute(SESSION_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+      if (sessionUser instanceof Optional<?> user) {
+        return (User) user.orElse(null);
+      }
+    }
+    User user = this.findSessionUser();
+    if (requestAttributes != null) {
+      requestAttributes.setAttribute(SESSION_USER_ATTRIBUTE, Optional.ofNullable(user),
+                                     RequestAttributes.SCOPE_REQUEST);
+    }
+    return user;
+  }
+
+  /**
+   * Returns the user with the specified email regardless of if it exists or not. The session user
+   * is returned without reading the database if it has the specified email.
+   *
+   * @param email The specified email
+   * @return The user with the specified email regardless of if it exists or not
+   */
+  @Transactional(readOnly = true)
+  public Optional<User> getUserByEmail(String email) {
+    String normalizedEmail = User.normalizeEmail(email);
+    User sessionUser = this.getSessionUser();
+    if (sessionUser != null && sessionUser.getEmail().equals(normalizedEmail)) {
+      return Optional.of(sessionUser);
+    }
+    return userRepository.findByEmail(normalizedEmail);
+  }
+
+  /**
+   * Returns the user which is authenticated for the current session from the database.
+   *
+   * @return User object or null if no user has logged in
+   */
+  private User findSessionUser() {
     SecurityContext securityContext = SecurityContextHolder.getContext();
     Authentication authentication = securityContext.getAuthentication();
-    String username = authentication.getName();
-    return userRepository.findByEmail(username).orElse(null);
+    User user = null;
+    if (authentication != null
+        && authentication.getPrincipal() instanceof AccessUserDetails principal) {
+      user = userRepository.findById(principal.getId()).orElse(null);
+    }
+    return user;
   }
 
   /**
-   * Checks if user with given username exists in the database.
+   * Returns the catalog view of the user which is authenticated for the current session. The view
+   * is decided from the authorities of the session, so the user is not read from the database.
    *
-   * @param username Username of the user to check, case-sensitive
-   * @return True if user exists or false otherwise
+   * @return The catalog view of the session
    */
-  private boolean userExists(String username) {
-    try {
-      loadUserByUsername(username);
-      return true;
-    } catch (UsernameNotFoundException e) {
-      return false;
-    }
+  public CatalogView getSessionCatalogView() {
+    return CatalogView.of(SecurityContextHolder.getContext().getAuthentication());
   }
 
   /**
@@ -86,12 +149,13 @@ public class AccessUserService implements UserDetailsService {
    * @param dateOfBirth Date of birth of the new user
    * @throws IOException If creation of the user failed
    */
+  @Transactional
   public void tryCreateNewUser(String firstName, String lastName, String email, int phoneNumber,
                                String password, Date dateOfBirth) throws IOException {
     String errorMessage;
     if (email.isBlank()) {
       errorMessage = "Email cannot be empty";
-    } else if (userExists(email)) {
+    } else if (emailIndex.exists(email)) {
       errorMessage = "Email already used";
     } else {
       errorMessage = checkPasswordRequirements(password);
@@ -136,6 +200,7 @@ public class AccessUserService implements UserDetailsService {
                            dateOfBirth);
       user.addRole(userRole);
       userRepository.save(user);
+      emailIndex.add(user.getEmail());
     }
   }
 
@@ -143,29 +208,39 @@ public class AccessUserService implements UserDetailsService {
    * Creates a secure hash of a password.
    *
    * @param password Plaintext password
-   * @return BCrypt hash, with random salt
+   * @return BCrypt hash with the configured cost factor, with random salt
    */
   private String createHash(String password) {
-    return BCrypt.hashpw(password, BCrypt.gensalt());
+    return this.passwordEncoder.encode(password);
   }
 
   /**
-   * Updates user information except password.
+   * Updates user information except password. Tokens issued to the user before an email change
+   * are no longer accepted, as the email is their subject.
    *
    * @param user     User to update
    * @param userData User data to set for the user
    * @return A string containing an error message, null if no errors occured.
    */
+  @Transactional
   public String updateUser(User user, UserUpdateDto userData) {
     String errorMessage = null;
-    if (!userExists(userData.getEmail()) || userData.getEmail().equals(user.getEmail())) {
+    String email = User.normalizeEmail(userData.getEmail());
+    if ((email != null && email.equals(user.getEmail())) || !emailIndex.exists(email)) {
+      String oldEmail = user.getEmail();
       user.setFirstName(userData.getFirstName());
       user.setLastName(userData.getLastName());
       user.setEmail(userData.getEmail());
       user.setPhoneNumber(userData.getPhoneNumber());
       user.setDateOfBirth(userData.getDateOfBirth());
       if (user.isValid()) {
+        if (!user.getEmail().equals(oldEmail)) {
+          revocationStore.revokeSecurityVersion(user.getId(), user.getSecurityVersion());
+          user.increaseSecurityVersion();
+        }
         userRepository.save(user);
+        emailIndex.add(user.getEmail());
+        principalCache.evict(oldEmail);
       } else {
         errorMessage = "User data not valid";
       }
@@ -176,18 +251,45 @@ public class AccessUserService implements UserDetailsService {
   }
 
   /**
-   * Updates user password.
+   * Updates user password. Tokens issued to the user before the update are no longer accepted.
    *
    * @param user         User to update
    * @param userPassword User password to set for the user
    * @return A string containing an error message, null if no errors occured
    */
+  @Transactional
   public String updateUserPassword(User user, UserUpdatePasswordDto userPassword) {
     String errorMessage = checkPasswordRequirements(userPassword.getPassword());
     if (errorMessage == null) {
       user.setPassword(createHash(userPassword.getPassword()));
+      revocationStore.revokeSecurityVersion(user.getId(), user.getSecurityVersion());
+      user.increaseSecurityVersion();
       userRepository.save(user);
+      principalCache.evict(user.getEmail());
     }
     return errorMessage;
   }
+
+  /**
+   * Stores the specified new hash of the unchanged password of the specified user. Called after a
+   * successful login when the stored hash uses another cost factor than the configured one. The
+   * password is the same, so tokens issued to the user are still accepted.
+   *
+   * @param user        The specified user details
+   * @param newPassword The specified new password hash
+   * @return The user details with the new password hash
+   */
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    Optional<User> existingUser =
+        userRepository.findByEmail(User.normalizeEmail(user.getUsername()));
+    if (existingUser.isEmpty()) {
+      return user;
+    }
+    existingUser.get().setPassword(newPassword);
+    userRepository.save(existingUser.get());
+    principalCache.evict(user.getUsername());
+    return new AccessUserDetails(existingUser.get());
+  }
 }
@@ -0,0 +1,39 @@
+package no.ntnu.project.group4.webapp.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The AfterCommit class contains the shared handling of work that must only be done once the
+ * current transaction has committed.
+ *
+ * <p>The catalog cache and the availability index mirror the database in memory, so they must not
+ * see a change that is rolled back. Their updates are deferred until the transaction commits and
+ * are dropped if it rolls back. Outside a transaction the work is done immediately.</p>
+ */
+final class AfterCommit {
+  /**
+   * Constructs an instance of the AfterCommit class. The class only has static members.
+   */
+  private AfterCommit() {
+  }
+
+  /**
+   * Runs the specified work after the current transaction commits, or immediately if there is no
+   * current transaction.
+   *
+   * @param work The specified work
+   */
+  static void run(Runnable work) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          work.run();
+        }
+      });
+    } else {
+      work.run();
+    }
+  }
+}
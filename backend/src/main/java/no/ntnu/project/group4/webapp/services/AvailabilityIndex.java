@@ -0,0 +1,311 @@
+package no.ntnu.project.group4.webapp.services;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import no.ntnu.project.group4.webapp.models.Rental;
+import no.ntnu.project.group4.webapp.repositories.RentalRepository;
+import no.ntnu.project.group4.webapp.repositories.RentalRepository.RentalPeriod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * The AvailabilityIndex class represents an in-memory index of when each provider is booked.
+ *
+ * <p>Every provider has a schedule of its rentals stored as sorted primitive arrays, so checking
+ * if a provider is free in a period is a binary search instead of a scan over its rentals. The
+ * index is built from the database at startup and is kept up to date by the RentalService class,
+ * and changes are only applied to it once they are committed. Dates are stored as days since
+ * epoch, which is the precision rentals are stored with.</p>
+ */
+@Service
+public class AvailabilityIndex {
+  @Autowired
+  private RentalRepository rentalRepository;
+
+  private final Map<Long, Schedule> schedules = new ConcurrentHashMap<>();
+
+  private final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+  /**
+   * Rebuilds the index from the rentals in the database.
+   */
+  @PostConstruct
+  public void rebuild() {
+    this.schedules.clear();
+    int count = 0;
+    for (RentalPeriod period : this.rentalRepository.findAllPeriods()) {
+      this.add(period.getProviderId(), period.getId(), period.getStartDate(),
+               period.getEndDate());
+      count++;
+    }
+    this.logger.info("Availability index built from " + count + " rentals");
+  }
+
+  /**
+   * Returns true if the provider with the specified ID has no rental overlapping the period
+   * between the specified start and end date or false otherwise.
+   *
+   * @param providerId The specified provider ID
+   * @param start      The specified start date
+   * @param end        The specified end date
+   * @return True if the provider is free in the specified period or false otherwise
+   */
+  public boolean isFree(Long providerId, Date start, Date end) {
+    Schedule schedule = this.schedules.get(providerId);
+    return schedule == null || schedule.isFree(toDay(start), toDay(end));
+  }
+
+  /**
+   * Returns true if the provider with the specified ID has no rental other than the rental with
+   * the specified ID overlapping the period between the specified start and end date or false
+   * otherwise.
+   *
+   * @param providerId The specified provider ID
+   * @param start      The specified start date
+   * @param end        The specified end date
+   * @param rentalId   The specified ID of the rental to ignore
+   * @return True if the provider is free in the specified period or false otherwise
+   */
+  public boolean isFree(Long providerId, Date start, Date end, Long rentalId) {
+    Schedule schedule = this.schedules.get(providerId);
+    if (schedule != null) {
+      schedule = schedule.without(rentalId);
+    }
+    return schedule == null || schedule.isFree(toDay(start), toDay(end));
+  }
+
+  /**
+   * Adds the specified rental to the schedule of its provider, replacing the rental if it is
+   * already in the schedule. Inside a transaction the rental is added once it commits.
+   *
+   * @param rental The specified rental
+   */
+  public void add(Rental rental) {
+    Long providerId = rental.getProvider().getId();
+    Long rentalId = rental.getId();
+    Date start = rental.getStartDate();
+    Date end = rental.getEndDate();
+    AfterCommit.run(() -> this.add(providerId, rentalId, start, end));
+  }
+
+  /**
+   * Removes the specified rental from the schedule of its provider. Inside a transaction the
+   * rental is removed once it commits.
+   *
+   * @param rental The specified rental
+   */
+  public void remove(Rental rental) {
+    Long providerId = rental.getProvider().getId();
+    Long rentalId = rental.getId();
+    AfterCommit.run(() -> this.schedules.computeIfPresent(
+        providerId, (id, schedule) -> schedule.without(rentalId)));
+  }
+
+  /**
+   * Removes the schedule of the provider with the specified ID. Inside a transaction the schedule
+   * is removed once it commits.
+   *
+   * @param providerId The specified provider ID
+   */
+  public void removeProvider(Long providerId) {
+    AfterCommit.run(() -> this.schedules.remove(providerId));
+  }
+
+  /**
+   * Adds the rental with the specified ID and period to the schedule of the provider with the
+   * specified ID.
+   *
+   * @param providerId The specified provider ID
+   * @param rentalId   The specified rental ID
+   * @param start      The specified start date
+   * @param end        The specified end date
+   */
+  private void add(Long providerId, Long rentalId, Date start, Date end) {
+    long startDay = toDay(start);
+    long endDay = toDay(end);
+    this.schedules.merge(providerId, Schedule.of(rentalId, startDay, endDay),
+        (schedule, ignored) -> schedule.with(rentalId, startDay, endDay));
+  }
+
+  /**
+   * Returns the number of days since epoch of the specified date.
+   *
+   * @param date The specified date
+   * @return The number of days since epoch of the specified date
+   */
+  static long toDay(Date date) {
+    return date.toLocalDate().toEpochDay();
+  }
+
+  /**
+   * The Schedule class represents the rentals of a single provider.
+   *
+   * <p>Rentals are sorted by start day. Alongside the end days the schedule keeps the running
+   * maximum end day, so the latest end among all rentals starting before a given day is found with
+   * a single binary search even when rentals overlap. Schedules are immutable, updates create a
+   * new schedule so readers never need to lock.</p>
+   */
+  private static final class Schedule {
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    /**
+     * Constructs an instance of the Schedule class.
+     *
+     * @param ids    The specified rental IDs, sorted by start day
+     * @param starts The specified start days, sorted
+     * @param ends   The specified end days, sorted by start day
+     */
+    private Schedule(long[] ids, long[] starts, long[] ends) {
+      this.ids = ids;
+      this.starts = starts;
+      this.ends = ends;
+      this.maxEnds = new long[ends.length];
+      long maxEnd = Long.MIN_VALUE;
+      for (int i = 0; i < ends.length; i++) {
+        maxEnd = Math.max(maxEnd, ends[i]);
+        this.maxEnds[i] = maxEnd;
+      }
+    }
+
+    /**
+     * Returns a schedule containing only the specified rental.
+     *
+     * @param id    The specified rental ID
+     * @param start The specified start day
+     * @param end   The specified end day
+     * @return A schedule containing only the specified rental
+     */
+    private static Schedule of(long id, long start, long end) {
+      return new Schedule(new long[] {id}, new long[] {start}, new long[] {end});
+    }
+
+    /**
+     * Returns true if no rental overlaps the period between the specified start and end day or
+     * false otherwise.
+     *
+     * @param start The specified start day
+     * @param end   The specified end day
+     * @return True if no rental overlaps the specified period or false otherwise
+     */
+    private boolean isFree(long start, long end) {
+      int last = this.lastStartingOnOrBefore(end);
+      return last < 0 || this.maxEnds[last] < start;
+    }
+
+    /**
+     * Returns a copy of this schedule with the specified rental added. An existing rental with the
+     * same ID is replaced.
+     *
+     * @param id    The specified rental ID
+     * @param start The specified start day
+     * @param end   The specified end day
+     * @return A copy of this schedule with the specified rental added
+     */
+    private Schedule with(long id, long start, long end) {
+      Schedule base = this.indexOf(id) < 0 ? this : this.without(id);
+      if (base == null) {
+        return of(id, start, end);
+      }
+      int position = base.lastStartingOnOrBefore(start) + 1;
+      int length = base.ids.length;
+      long[] newIds = new long[length + 1];
+      long[] newStarts = new long[length + 1];
+      long[] newEnds = new long[length + 1];
+      insert(base.ids, newIds, position, id);
+      insert(base.starts, newStarts, position, start);
+      insert(base.ends, newEnds, position, end);
+      return new Schedule(newIds, newStarts, newEnds);
+    }
+
+    /**
+     * Returns a copy of this schedule with the rental with the specified ID removed, or null if
+     * the schedule becomes empty.
+     *
+     * @param id The specified rental ID
+     * @return A copy of this schedule without the specified rental or null if it becomes empty
+     */
+    private Schedule without(long id) {
+      int position = this.indexOf(id);
+      if (position < 0) {
+        return this;
+      }
+      if (this.ids.length == 1) {
+        return null;
+      }
+      return new Schedule(remove(this.ids, position), remove(this.starts, position),
+                          remove(this.ends, position));
+    }
+
+    /**
+     * Returns the index of the last rental starting on or before the specified day, or -1 if
+     * there is none.
+     *
+     * @param day The specified day
+     * @return The index of the last rental starting on or before the specified day or -1
+     */
+    private int lastStartingOnOrBefore(long day) {
+      int low = 0;
+      int high = this.starts.length - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        if (this.starts[mid] <= day) {
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return high;
+    }
+
+    /**
+     * Returns the index of the rental with the specified ID or -1 if it is not in the schedule.
+     *
+     * @param id The specified rental ID
+     * @return The index of the rental with the specified ID or -1
+     */
+    private int indexOf(long id) {
+      for (int i = 0; i < this.ids.length; i++) {
+        if (this.ids[i] == id) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Copies the specified source array into the specified target array with the specified value
+     * inserted at the specified position.
+     *
+     * @param source   The specified source array
+     * @param target   The specified target array, one longer than the source array
+     * @param position The specified position
+     * @param value    The specified value
+     */
+    private static void insert(long[] source, long[] target, int position, long value) {
+      System.arraycopy(source, 0, target, 0, position);
+      target[position] = value;
+      System.arraycopy(source, position, target, position + 1, source.length - position);
+    }
+
+    /**
+     * Returns a copy of the specified array with the value at the specified position removed.
+     *
+     * @param source   The specified array
+     * @param position The specified position
+     * @return A copy of the specified array without the value at the specified position
+     */
+    private static long[] remove(long[] source, int position) {
+      long[] target = Arrays.copyOf(source, source.length - 1);
+      System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+      return target;
+    }
+  }
+}
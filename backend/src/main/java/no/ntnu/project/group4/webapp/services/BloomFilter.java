@@ -0,0 +1,93 @@
+package no.ntnu.project.group4.webapp.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The BloomFilter class represents a fixed size Bloom filter of strings.
+ *
+ * <p>A Bloom filter answers "definitely not added" or "possibly added" in constant time and
+ * without locking. Negative answers are exact, positive answers must be confirmed by an exact
+ * lookup. Strings cannot be removed, so the filter is rebuilt when its source shrinks.</p>
+ */
+final class BloomFilter {
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * Constructs an instance of the BloomFilter class sized for the specified number of strings
+   * with the specified false positive probability.
+   *
+   * @param expectedInsertions        The specified expected number of strings
+   * @param falsePositiveProbability The specified false positive probability
+   */
+  BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+    long insertions = Math.max(1L, expectedInsertions);
+    long optimalBitCount = (long) Math.ceil(
+        -insertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.max(1L, (optimalBitCount + Long.SIZE - 1) / Long.SIZE);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words * Long.SIZE;
+    this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / insertions
+                                                  * Math.log(2)));
+  }
+
+  /**
+   * Adds the specified string.
+   *
+   * @param value The specified string
+   */
+  void put(String value) {
+    long hash = hash(value);
+    int first = (int) hash;
+    int second = (int) (hash >>> 32);
+    for (int i = 1; i <= this.hashCount; i++) {
+      long bit = Math.floorMod(first + (long) i * second, this.bitCount);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current = this.bits.get(word);
+      while ((current & mask) == 0
+             && !this.bits.compareAndSet(word, current, current | mask)) {
+        current = this.bits.get(word);
+      }
+    }
+  }
+
+  /**
+   * Checks if the specified string might have been added.
+   *
+   * @param value The specified string
+   * @return False if the string was definitely not added or true if it might have been
+   */
+  boolean mightContain(String value) {
+    long hash = hash(value);
+    int first = (int) hash;
+    int second = (int) (hash >>> 32);
+    for (int i = 1; i <= this.hashCount; i++) {
+      long bit = Math.floorMod(first + (long) i * second, this.bitCount);
+      if ((this.bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a well mixed 64 bit hash of the specified string, using FNV-1a followed by the
+   * SplitMix64 finalizer.
+   *
+   * @param value The specified string
+   * @return A 64 bit hash of the specified string
+   */
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+    return hash ^ (hash >>> 31);
+  }
+}
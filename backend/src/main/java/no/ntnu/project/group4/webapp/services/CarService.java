@@ -4,7 +4,9 @@ import java.util.Optional;
 import no.ntnu.project.group4.webapp.models.Car;
 import no.ntnu.project.group4.webapp.repositories.CarRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The CarService class represents the service class for the car entity.
@@ -13,12 +15,17 @@ import org.springframework.stereotype.Service;
 public class CarService {
   @Autowired
   private CarRepository carRepository;
+  @Autowired
+  private CatalogCache catalogCache;
+  @Autowired
+  private OptimisticRetry optimisticRetry;
 
   /**
    * Returns all cars in the database.
    *
    * @return All cars in the database
    */
+  @Transactional(readOnly = true)
   public Iterable<Car> getAll() {
     return this.carRepository.findAll();
   }
@@ -29,6 +36,7 @@ public class CarService {
    * @param id The specified ID
    * @return The car with the specified ID regardless of if it exists or not
    */
+  @Transactional(readOnly = true)
   public Optional<Car> getOne(Long id) {
     return this.carRepository.findById(id);
   }
@@ -40,11 +48,15 @@ public class CarService {
    * @return The generated ID of the specified car if it is added to the database
    * @throws IllegalArgumentException If the specified car is invalid
    */
+  @Transactional
   public Long add(Car car) {
     if (!car.isValid()) {
       throw new IllegalArgumentException("Car is invalid");
     }
+    // A new car starts at the first version, whatever version was sent
+    car.setVersion(null);
     this.carRepository.save(car);
+    this.catalogCache.evictCar(car.getId());
     return car.getId();
   }
 
@@ -52,25 +64,22 @@ public class CarService {
    * Returns true if the car with the specified ID is found and updated with the specified car or
    * false otherwise.
    *
+   * <p>If the specified car has a version, the update is rejected unless it is the version of the
+   * stored car. Without a version, the update is retried if another update of the car is
+   * committed first.</p>
+   *
    * @param id  The specified ID
    * @param car The specified car
    * @return True if the car with the specified ID is found and updated with the specified car or
    *         false otherwise
-   * @throws IllegalArgumentException If the specified car is invalid
+   * @throws IllegalArgumentException          If the specified car is invalid
+   * @throws OptimisticLockingFailureException If the car was updated by another request
    */
   public boolean update(Long id, Car car) {
-    Optional<Car> existingCar = this.carRepository.findById(id);
     if (!car.isValid()) {
       throw new IllegalArgumentException("Car is invalid");
     }
-    if (existingCar.isPresent()) {
-      Car existingCarObj = existingCar.get();
-      existingCarObj.setMake(car.getMake());
-      existingCarObj.setModel(car.getModel());
-      existingCarObj.setYear(car.getYear());
-      this.carRepository.save(existingCarObj);
-    }
-    return existingCar.isPresent();
+    return this.optimisticRetry.execute(car.getVersion() == null, () -> this.apply(id, car));
   }
   
   /**
@@ -79,11 +88,37 @@ public class CarService {
    * @param id The specified ID
    * @return True if the car with the specified ID is found and deleted or false otherwise
    */
+  @Transactional
   public boolean delete(Long id) {
     Optional<Car> car = this.carRepository.findById(id);
     if (car.isPresent()) {
       this.carRepository.deleteById(id);
+      this.catalogCache.evictCar(id);
     }
     return car.isPresent();
   }
+
+  /**
+   * Returns true if the car with the specified ID is found and updated with the specified car in
+   * the current transaction or false otherwise.
+   *
+   * @param id  The specified ID
+   * @param car The specified car
+   * @return True if the car with the specified ID is found and updated or false otherwise
+   * @throws OptimisticLockingFailureException If the stored car has another version than the
+   *                                           specified car
+   */
+  private boolean apply(Long id, Car car) {
+    Optional<Car> existingCar = this.carRepository.findById(id);
+    if (existingCar.isPresent()) {
+      Car existingCarObj = existingCar.get();
+      OptimisticRetry.checkVersion(Car.class, id, existingCarObj.getVersion(), car.getVersion());
+      existingCarObj.setMake(car.getMake());
+      existingCarObj.setModel(car.getModel());
+      existingCarObj.setYear(car.getYear());
+      this.carRepository.save(existingCarObj);
+      this.catalogCache.evictCar(id);
+    }
+    return existingCar.isPresent();
+  }
 }
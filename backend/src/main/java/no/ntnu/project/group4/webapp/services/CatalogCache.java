@@ -0,0 +1,279 @@
+package no.ntnu.project.group4.webapp.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import no.ntnu.project.group4.webapp.dto.CarDto;
+import no.ntnu.project.group4.webapp.dto.ConfigurationDto;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
+import no.ntnu.project.group4.webapp.dto.ProviderDto;
+import no.ntnu.project.group4.webapp.models.Configuration;
+import no.ntnu.project.group4.webapp.models.Provider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The CatalogCache class represents the bounded in-process cache in front of the car catalog.
+ *
+ * <p>Reads go through this class, and misses are loaded from the CatalogService class. The public
+ * and admin views are cached under separate keys. The services changing the catalog call the
+ * evict methods after every change, which remove the lists and the single entries affected by the
+ * change and increase the catalog version once the change is committed. Entries are also evicted
+ * when the cache is full or when they reach their time to live. Hits, misses and evictions are
+ * published as the "catalog" cache metrics.</p>
+ *
+ * <p>A load that started before a change committed may finish after the change evicted its
+ * entries. Every eviction increases an eviction generation before removing any entry, and a
+ * loaded value is only stored if the generation is still the one the load started at, so such a
+ * value is returned to its own request but never cached. The catalog version is increased after
+ * the eviction, so a request that sees the new version never reads an entry from before the
+ * change.</p>
+ */
+@Service
+public class CatalogCache {
+  @Autowired
+  private CatalogService catalogService;
+  @Autowired
+  private CatalogVersion catalogVersion;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${catalog.cache.maximum-size:1000}")
+  private long maximumSize;
+  @Value("${catalog.cache.expire-after-write:10m}")
+  private Duration expireAfterWrite;
+
+  private Cache<Key, Object> cache;
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Builds the cache and registers its metrics.
+   */
+  @PostConstruct
+  public void init() {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(this.maximumSize)
+        .expireAfterWrite(this.expireAfterWrite)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(this.meterRegistry, this.cache, "catalog");
+  }
+
+  /**
+   * Returns the page of cars in the specified catalog view with an ID greater than the specified
+   * cursor.
+   *
+   * @param view  The specified catalog view
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of cars after the specified cursor
+   */
+  public KeysetPage<CarDto> getCars(CatalogView view, long after, int limit) {
+    return this.get(new Key(Section.CARS, view, after, limit),
+                    () -> this.catalogService.getCars(view, after, limit));
+  }
+
+  /**
+   * Returns the car with the specified ID in the specified catalog view regardless of if it exists
+   * or not.
+   *
+   * @param id   The specified ID
+   * @param view The specified catalog view
+   * @return The car with the specified ID regardless of if it exists or not
+   */
+  public Optional<CarDto> getCar(Long id, CatalogView view) {
+    return this.get(new Key(Section.CAR, view, id, 0),
+                    () -> this.catalogService.getCar(id, view));
+  }
+
+  /**
+   * Returns the page of configurations in the specified catalog view with an ID greater than the
+   * specified cursor.
+   *
+   * @param view  The specified catalog view
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of configurations after the specified cursor
+   */
+  public KeysetPage<ConfigurationDto> getConfigurations(CatalogView view, long after, int limit) {
+    return this.get(new Key(Section.CONFIGURATIONS, view, after, limit),
+                    () -> this.catalogService.getConfigurations(view, after, limit));
+  }
+
+  /**
+   * Returns the configuration with the specified ID in the specified catalog view regardless of if
+   * it exists or not.
+   *
+   * @param id   The specified ID
+   * @param view The specified catalog view
+   * @return The configuration with the specified ID regardless of if it exists or not
+   */
+  public Optional<ConfigurationDto> getConfiguration(Long id, CatalogView view) {
+    return this.get(new Key(Section.CONFIGURATION, view, id, 0),
+                    () -> this.catalogService.getConfiguration(id, view));
+  }
+
+  /**
+   * Returns the page of providers in the specified catalog view with an ID greater than the
+   * specified cursor.
+   *
+   * @param view  The specified catalog view
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of providers after the specified cursor
+   */
+  public KeysetPage<ProviderDto> getProviders(CatalogView view, long after, int limit) {
+    return this.get(new Key(Section.PROVIDERS, view, after, limit),
+                    () -> this.catalogService.getProviders(view, after, limit));
+  }
+
+  /**
+   * Returns the provider with the specified ID regardless of if it exists or not. The provider is
+   * returned even if it is not visible.
+   *
+   * @param id The specified ID
+   * @return The provider with the specified ID regardless of if it exists or not
+   */
+  public Optional<ProviderDto> getProvider(Long id) {
+    return this.get(new Key(Section.PROVIDER, CatalogView.ADMIN, id, 0),
+                    () -> this.catalogService.getProvider(id));
+  }
+
+  /**
+   * Evicts everything affected by a change to the car with the specified ID. Inside a transaction
+   * the entries are evicted once it commits.
+   *
+   * @param carId The specified car ID
+   */
+  public void evictCar(Long carId) {
+    AfterCommit.run(() -> {
+      this.evictCarEntries(carId);
+      this.catalogVersion.bump();
+    });
+  }
+
+  /**
+   * Evicts everything affected by a change to the specified configuration or to one of its extra
+   * features. Inside a transaction the entries are evicted once it commits.
+   *
+   * @param configuration The specified configuration
+   */
+  public void evictConfiguration(Configuration configuration) {
+    Long carId = configuration.getCar().getId();
+    Long configurationId = configuration.getId();
+    AfterCommit.run(() -> {
+      this.evictConfigurationEntries(carId, configurationId);
+      this.catalogVersion.bump();
+    });
+  }
+
+  /**
+   * Evicts everything affected by a change to the specified provider or to one of its rentals.
+   * Inside a transaction the entries are evicted once it commits.
+   *
+   * @param provider The specified provider
+   */
+  public void evictProvider(Provider provider) {
+    Long carId = provider.getConfiguration().getCar().getId();
+    Long configurationId = provider.getConfiguration().getId();
+    Long providerId = provider.getId();
+    AfterCommit.run(() -> {
+      this.evictConfigurationEntries(carId, configurationId);
+      this.evict(Section.PROVIDERS, null);
+      this.evict(Section.PROVIDER, providerId);
+      this.catalogVersion.bump();
+    });
+  }
+
+  /**
+   * Evicts the entries affected by a change to the car with the specified ID.
+   *
+   * @param carId The specified car ID
+   */
+  private void evictCarEntries(Long carId) {
+    this.evict(Section.CARS, null);
+    this.evict(Section.CAR, carId);
+  }
+
+  /**
+   * Evicts the entries affected by a change to the configuration with the specified ID.
+   *
+   * @param carId           The specified ID of the car of the configuration
+   * @param configurationId The specified configuration ID
+   */
+  private void evictConfigurationEntries(Long carId, Long configurationId) {
+    this.evictCarEntries(carId);
+    this.evict(Section.CONFIGURATIONS, null);
+    this.evict(Section.CONFIGURATION, configurationId);
+  }
+
+  /**
+   * Returns the cached value with the specified key, loading it with the specified loader on a
+   * miss. The loaded value is not cached if anything was evicted while it was loaded.
+   *
+   * @param key    The specified key
+   * @param loader The specified loader
+   * @param <T>    The type of the value
+   * @return The cached value with the specified key
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T get(Key key, Supplier<T> loader) {
+    Object value = this.cache.getIfPresent(key);
+    if (value == null) {
+      long loadGeneration = this.generation.get();
+      Object loaded = loader.get();
+      // Checked atomically with the insert, so an eviction either rejects the value or removes it
+      this.cache.asMap().compute(key, (ignored, cached) ->
+          this.generation.get() == loadGeneration ? loaded : cached);
+      value = loaded;
+    }
+    return (T) value;
+  }
+
+  /**
+   * Evicts all entries in the specified section, or only the entries with the specified ID if it
+   * is not null.
+   *
+   * @param section The specified section
+   * @param id      The specified ID, or null for all entries in the section
+   */
+  private void evict(Section section, Long id) {
+    this.generation.incrementAndGet();
+    this.cache.asMap().keySet().removeIf(
+        key -> key.section() == section && (id == null || key.id() == id));
+    this.meterRegistry.counter("catalog.cache.invalidations",
+                               "section", section.name().toLowerCase(Locale.ROOT)).increment();
+  }
+
+  /**
+   * The Section enum represents the kinds of entries in the cache.
+   */
+  private enum Section {
+    CARS,
+    CAR,
+    CONFIGURATIONS,
+    CONFIGURATION,
+    PROVIDERS,
+    PROVIDER
+  }
+
+  /**
+   * The Key record represents the key of an entry in the cache. Lists use the cursor as ID, while
+   * single entries use the ID of the entity and a limit of zero.
+   *
+   * @param section The section of the entry
+   * @param view    The catalog view of the entry
+   * @param id      The cursor or entity ID of the entry
+   * @param limit   The page size of the entry
+   */
+  private record Key(Section section, CatalogView view, long id, int limit) {
+  }
+}
@@ -0,0 +1,255 @@
+package no.ntnu.project.group4.webapp.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import no.ntnu.project.group4.webapp.dto.CarDto;
+import no.ntnu.project.group4.webapp.dto.ConfigurationDto;
+import no.ntnu.project.group4.webapp.dto.ExtraFeatureDto;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
+import no.ntnu.project.group4.webapp.dto.ProviderDto;
+import no.ntnu.project.group4.webapp.dto.RentalDto;
+import no.ntnu.project.group4.webapp.models.Car;
+import no.ntnu.project.group4.webapp.models.Configuration;
+import no.ntnu.project.group4.webapp.models.ExtraFeature;
+import no.ntnu.project.group4.webapp.models.Provider;
+import no.ntnu.project.group4.webapp.repositories.CarRepository;
+import no.ntnu.project.group4.webapp.repositories.ConfigurationRepository;
+import no.ntnu.project.group4.webapp.repositories.ExtraFeatureRepository;
+import no.ntnu.project.group4.webapp.repositories.ProviderRepository;
+import no.ntnu.project.group4.webapp.repositories.RentalRepository;
+import no.ntnu.project.group4.webapp.repositories.RentalRepository.RentalPeriod;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The CatalogService class represents the read-only service class for the car catalog.
+ *
+ * <p>The catalog is the tree of cars, configurations, extra features, providers and rentals. It is
+ * read with one query per level instead of one query per parent, and is returned as DTOs so
+ * serializing it never triggers lazy loading.</p>
+ */
+@Service
+public class CatalogService {
+  @Autowired
+  private CarRepository carRepository;
+  @Autowired
+  private ConfigurationRepository configurationRepository;
+  @Autowired
+  private ExtraFeatureRepository extraFeatureRepository;
+  @Autowired
+  private ProviderRepository providerRepository;
+  @Autowired
+  private RentalRepository rentalRepository;
+
+  /**
+   * Returns the page of cars in the catalog with an ID greater than the specified cursor, sorted
+   * by ID.
+   *
+   * <p>The IDs of the page are read first, so the configurations can be fetched in the same query
+   * as the cars without paging over the joined rows.</p>
+   *
+   * @param view  The specified catalog view
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of cars after the specified cursor
+   */
+  @Transactional(readOnly = true)
+  public KeysetPage<CarDto> getCars(CatalogView view, long after, int limit) {
+    KeysetPage<Long> ids = KeysetPage.of(
+        this.carRepository.findIdsAfter(after, Limit.of(limit + 1)), limit, id -> id);
+    List<Car> cars = ids.getItems().isEmpty()
+        ? new ArrayList<>()
+        : this.carRepository.findWithConfigurationsByIdIn(ids.getItems());
+    return new KeysetPage<>(this.toCarDtos(cars, view), ids.getNextCursor());
+  }
+
+  /**
+   * Returns the car with the specified ID in the catalog regardless of if it exists or not.
+   *
+   * @param id   The specified ID
+   * @param view The specified catalog view
+   * @return The car with the specified ID regardless of if it exists or not
+   */
+  @Transactional(readOnly = true)
+  public Optional<CarDto> getCar(Long id, CatalogView view) {
+    return this.carRepository.findWithConfigurationsById(id)
+        .map(car -> this.toCarDtos(List.of(car), view).get(0));
+  }
+
+  /**
+   * Returns the page of configurations in the catalog with an ID greater than the specified
+   * cursor, sorted by ID.
+   *
+   * @param view  The specified catalog view
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of configurations after the specified cursor
+   */
+  @Transactional(readOnly = true)
+  public KeysetPage<ConfigurationDto> getConfigurations(CatalogView view, long after, int limit) {
+    KeysetPage<Configuration> configurations = KeysetPage.of(
+        this.configurationRepository.findWithCarAfter(after, Limit.of(limit + 1)), limit,
+        Configuration::getId);
+    return new KeysetPage<>(this.toConfigurationDtos(configurations.getItems(), view),
+                            configurations.getNextCursor());
+  }
+
+  /**
+   * Returns the configuration with the specified ID in the catalog regardless of if it exists or
+   * not.
+   *
+   * @param id   The specified ID
+   * @param view The specified catalog view
+   * @return The configuration with the specified ID regardless of if it exists or not
+   */
+  @Transactional(readOnly = true)
+  public Optional<ConfigurationDto> getConfiguration(Long id, CatalogView view) {
+    return this.configurationRepository.findWithCarById(id)
+        .map(config -> this.toConfigurationDtos(List.of(config), view).get(0));
+  }
+
+  /**
+   * Returns the page of providers in the catalog with an ID greater than the specified cursor,
+   * sorted by ID.
+   *
+   * @param view  The specified catalog view
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of providers after the specified cursor
+   */
+  @Transactional(readOnly = true)
+  public KeysetPage<ProviderDto> getProviders(CatalogView view, long after, int limit) {
+    List<Provider> rows = view.includesHidden()
+        ? this.providerRepository.findWithConfigurationAfter(after, Limit.of(limit + 1))
+        : this.providerRepository.findVisibleWithConfigurationAfter(after, Limit.of(limit + 1));
+    KeysetPage<Provider> providers = KeysetPage.of(rows, limit, Provider::getId);
+    return new KeysetPage<>(this.toProviderDtos(providers.getItems()),
+                            providers.getNextCursor());
+  }
+
+  /**
+   * Returns the provider with the specified ID in the catalog regardless of if it exists or not.
+   * The provider is returned even if it is not visible, so the caller can tell a hidden provider
+   * apart from a missing one.
+   *
+   * @param id The specified ID
+   * @return The provider with the specified ID regardless of if it exists or not
+   */
+  @Transactional(readOnly = true)
+  public Optional<ProviderDto> getProvider(Long id) {
+    return this.providerRepository.findWithConfigurationById(id)
+        .map(provider -> this.toProviderDtos(List.of(provider)).get(0));
+  }
+
+  /**
+   * Returns the specified cars as DTOs.
+   *
+   * @param cars The specified cars, with their configurations already fetched
+   * @param view The specified catalog view
+   * @return The specified cars as DTOs
+   */
+  private List<CarDto> toCarDtos(List<Car> cars, CatalogView view) {
+    List<Configuration> configurations = new ArrayList<>();
+    for (Car car : cars) {
+      configurations.addAll(car.getConfigurations());
+    }
+    Map<Long, ConfigurationDto> configurationDtos = new LinkedHashMap<>();
+    for (ConfigurationDto configurationDto : this.toConfigurationDtos(configurations, view)) {
+      configurationDtos.put(configurationDto.getId(), configurationDto);
+    }
+    List<CarDto> carDtos = new ArrayList<>();
+    for (Car car : cars) {
+      List<ConfigurationDto> carConfigurations = new ArrayList<>();
+      for (Configuration configuration : car.getConfigurations()) {
+        carConfigurations.add(configurationDtos.get(configuration.getId()));
+      }
+      carDtos.add(new CarDto(car.getId(), car.getMake(), car.getModel(), car.getYear(),
+                             car.getVersion(), carConfigurations));
+    }
+    return carDtos;
+  }
+
+  /**
+   * Returns the specified configurations as DTOs. Extra features, providers and rentals are
+   * fetched with one query each for all the specified configurations.
+   *
+   * @param configurations The specified configurations
+   * @param view           The specified catalog view
+   * @return The specified configurations as DTOs
+   */
+  private List<ConfigurationDto> toConfigurationDtos(List<Configuration> configurations,
+                                                     CatalogView view) {
+    if (configurations.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Map<Long, List<ExtraFeatureDto>> extraFeaturesByConfiguration = new LinkedHashMap<>();
+    for (ExtraFeature extraFeature :
+         this.extraFeatureRepository.findByConfigurationInOrderByIdAsc(configurations)) {
+      extraFeaturesByConfiguration
+          .computeIfAbsent(extraFeature.getConfiguration().getId(), id -> new ArrayList<>())
+          .add(new ExtraFeatureDto(extraFeature.getId(), extraFeature.getName()));
+    }
+    List<Provider> providers = view.includesHidden()
+        ? this.providerRepository.findByConfigurationInOrderByIdAsc(configurations)
+        : this.providerRepository.findByConfigurationInAndVisibleTrueOrderByIdAsc(configurations);
+    List<ProviderDto> providerDtos = this.toProviderDtos(providers);
+    Map<Long, List<ProviderDto>> providersByConfiguration = new LinkedHashMap<>();
+    for (int i = 0; i < providers.size(); i++) {
+      providersByConfiguration
+          .computeIfAbsent(providers.get(i).getConfiguration().getId(), id -> new ArrayList<>())
+          .add(providerDtos.get(i));
+    }
+    List<ConfigurationDto> configurationDtos = new ArrayList<>();
+    for (Configuration configuration : configurations) {
+      configurationDtos.add(new ConfigurationDto(
+          configuration.getId(), configuration.getName(), configuration.getFuelType(),
+          configuration.getTransmissionType(), configuration.getNumberOfSeats(),
+          extraFeaturesByConfiguration.getOrDefault(configuration.getId(), new ArrayList<>()),
+          providersByConfiguration.getOrDefault(configuration.getId(), new ArrayList<>())));
+    }
+    return configurationDtos;
+  }
+
+  /**
+   * Returns the specified providers as DTOs. Rentals are fetched with one query for all the
+   * specified providers.
+   *
+   * @param providers The specified providers
+   * @return The specified providers as DTOs, in the same order
+   */
+  private List<ProviderDto> toProviderDtos(List<Provider> providers) {
+    Map<Long, List<RentalDto>> rentalsByProvider = this.getRentalsByProvider(providers);
+    List<ProviderDto> providerDtos = new ArrayList<>();
+    for (Provider provider : providers) {
+      providerDtos.add(new ProviderDto(provider.getId(), provider.getName(), provider.getPrice(),
+                                       provider.getLocation(), provider.isAvailable(),
+                                       provider.isVisible(), provider.getVersion(),
+                                       rentalsByProvider.getOrDefault(provider.getId(),
+                                                                      new ArrayList<>())));
+    }
+    return providerDtos;
+  }
+
+  /**
+   * Returns the rentals of the specified providers as DTOs grouped by provider ID.
+   *
+   * @param providers The specified providers
+   * @return The rentals of the specified providers grouped by provider ID
+   */
+  private Map<Long, List<RentalDto>> getRentalsByProvider(Collection<Provider> providers) {
+    Map<Long, List<RentalDto>> rentalsByProvider = new LinkedHashMap<>();
+    if (!providers.isEmpty()) {
+      for (RentalPeriod period : this.rentalRepository.findPeriodsByProviderIn(providers)) {
+        rentalsByProvider.computeIfAbsent(period.getProviderId(), id -> new ArrayList<>())
+            .add(new RentalDto(period.getId(), period.getStartDate(), period.getEndDate()));
+      }
+    }
+    return rentalsByProvider;
+  }
+}
@@ -0,0 +1,134 @@
+package no.ntnu.project.group4.webapp.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import no.ntnu.project.group4.webapp.dto.CarDto;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * The CatalogSnapshot class represents the pre-serialized first page of the public car catalog.
+ *
+ * <p>The page is serialized to JSON and compressed with gzip once per catalog version. Requests for
+ * it are answered with the stored bytes, so a request for the hot page does no serialization or
+ * compression. The snapshot is rebuilt by the first request after the catalog version changes.</p>
+ */
+@Service
+public class CatalogSnapshot {
+  @Autowired
+  private CatalogCache catalogCache;
+  @Autowired
+  private CatalogVersion catalogVersion;
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private volatile Snapshot publicCars;
+
+  /**
+   * Returns the snapshot of the first page of cars in the public catalog view.
+   *
+   * @param limit The specified page size
+   * @return The snapshot of the first page of cars in the public catalog view
+   */
+  public Snapshot getPublicCars(int limit) {
+    long version = this.catalogVersion.getVersion();
+    Snapshot snapshot = this.publicCars;
+    if (snapshot == null || snapshot.version != version || snapshot.limit != limit) {
+      synchronized (this) {
+        snapshot = this.publicCars;
+        if (snapshot == null || snapshot.version != version || snapshot.limit != limit) {
+          // The version is read before the catalog, so a change during rendering only makes the
+          // snapshot look older than it is and it is rebuilt by the next request
+          snapshot = this.render(version, limit,
+                                 this.catalogCache.getCars(CatalogView.PUBLIC, 0L, limit));
+          this.publicCars = snapshot;
+        }
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Returns a snapshot of the specified page.
+   *
+   * @param version The specified catalog version
+   * @param limit   The specified page size
+   * @param page    The specified page
+   * @return A snapshot of the specified page
+   */
+  private Snapshot render(long version, int limit, KeysetPage<CarDto> page) {
+    try {
+      byte[] json = this.objectMapper.writeValueAsBytes(page.getItems());
+      ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4 + 64);
+      try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+        out.write(json);
+      }
+      return new Snapshot(version, limit, json, gzip.toByteArray(), page.getNextCursor());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Car catalog could not be serialized", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * The Snapshot class represents a serialized page of the catalog.
+   */
+  public static final class Snapshot {
+    private final long version;
+    private final int limit;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final Long nextCursor;
+
+    /**
+     * Constructs an instance of the Snapshot class.
+     *
+     * @param version    The specified catalog version
+     * @param limit      The specified page size
+     * @param json       The specified JSON bytes
+     * @param gzip       The specified gzip compressed JSON bytes
+     * @param nextCursor The specified cursor of the next page, or null if there is none
+     */
+    private Snapshot(long version, int limit, byte[] json, byte[] gzip, Long nextCursor) {
+      this.version = version;
+      this.limit = limit;
+      this.json = json;
+      this.gzip = gzip;
+      this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Getter for JSON bytes. The returned array is shared and must not be modified.
+     *
+     * @return JSON bytes
+     */
+    public byte[] getJson() {
+      return this.json;
+    }
+
+    /**
+     * Getter for gzip compressed JSON bytes. The returned array is shared and must not be
+     * modified.
+     *
+     * @return Gzip compressed JSON bytes
+     */
+    public byte[] getGzip() {
+      return this.gzip;
+    }
+
+    /**
+     * Getter for next cursor.
+     *
+     * @return Next cursor, or null if there is no next page
+     */
+    public Long getNextCursor() {
+      return this.nextCursor;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package no.ntnu.project.group4.webapp.services;
+
+import java.util.Locale;
+import org.springframework.stereotype.Component;
+
+/**
+ * The CatalogVersion class represents the version of the car catalog.
+ *
+ * <p>The version is increased every time the catalog changes, and is used to build the ETag and
+ * Last-Modified headers of the catalog endpoints. It starts at the time of startup in
+ * milliseconds, so versions keep increasing across restarts and an ETag from before a restart is
+ * never mistaken for a current one.</p>
+ */
+@Component
+public class CatalogVersion {
+  private long version = System.currentTimeMillis();
+  private long lastModified = this.version;
+
+  /**
+   * Increases the version. Called after every change to the catalog.
+   */
+  public synchronized void bump() {
+    this.version++;
+    this.lastModified = Math.max(System.currentTimeMillis(), this.lastModified);
+  }
+
+  /**
+   * Returns the current version.
+   *
+   * @return The current version
+   */
+  public synchronized long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Returns the strong ETag of the current version of the specified catalog view.
+   *
+   * @param view The specified catalog view
+   * @param gzip True if the ETag is for the gzip compressed representation
+   * @return The ETag of the current version of the specified catalog view
+   */
+  public synchronized String getETag(CatalogView view, boolean gzip) {
+    return "\"" + view.name().toLowerCase(Locale.ROOT) + "-" + this.version
+        + (gzip ? "-gzip" : "") + "\"";
+  }
+
+  /**
+   * Returns the time of the last change to the catalog in milliseconds since epoch.
+   *
+   * @return The time of the last change to the catalog
+   */
+  public synchronized long getLastModified() {
+    return this.lastModified;
+  }
+}
@@ -0,0 +1,43 @@
+package no.ntnu.project.group4.webapp.services;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The CatalogView enum represents the variants of the car catalog.
+ *
+ * <p>The public variant only contains providers who are visible, while the admin variant contains
+ * all providers. The variants are read with separate queries, so neither is derived from the other
+ * at request time.</p>
+ */
+public enum CatalogView {
+  PUBLIC,
+  ADMIN;
+
+  /**
+   * Returns the catalog view the specified authentication is allowed to see. Only the granted
+   * authorities are checked, so the user is not read from the database.
+   *
+   * @param authentication The specified authentication, or null if there is none
+   * @return The admin view if the authentication has the admin role or the public view otherwise
+   */
+  public static CatalogView of(Authentication authentication) {
+    if (authentication != null) {
+      for (GrantedAuthority authority : authentication.getAuthorities()) {
+        if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+          return ADMIN;
+        }
+      }
+    }
+    return PUBLIC;
+  }
+
+  /**
+   * Checks if providers who are not visible are included in the view.
+   *
+   * @return True if providers who are not visible are included or false otherwise
+   */
+  public boolean includesHidden() {
+    return this == ADMIN;
+  }
+}
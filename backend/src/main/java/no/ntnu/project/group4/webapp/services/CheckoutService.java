@@ -0,0 +1,90 @@
+package no.ntnu.project.group4.webapp.services;
+
+import java.sql.Date;
+import java.time.temporal.ChronoUnit;
+import no.ntnu.project.group4.webapp.dto.CheckoutRequest;
+import no.ntnu.project.group4.webapp.dto.CheckoutResponse;
+import no.ntnu.project.group4.webapp.models.Car;
+import no.ntnu.project.group4.webapp.models.Provider;
+import no.ntnu.project.group4.webapp.models.Receipt;
+import no.ntnu.project.group4.webapp.models.Rental;
+import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.repositories.ProviderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The CheckoutService class represents the service class for checking out a rental.
+ *
+ * <p>A checkout books a rental and writes its receipt in one transaction, so there is never a
+ * rental without a receipt or a receipt without a rental. The provider is loaded with its
+ * configuration and car in one query, reserved as for any other rental, and the total price is
+ * computed from the price of the provider, never sent by the client.</p>
+ */
+@Service
+public class CheckoutService {
+  @Autowired
+  private ProviderRepository providerRepository;
+  @Autowired
+  private RentalService rentalService;
+  @Autowired
+  private ReceiptService receiptService;
+
+  /**
+   * Returns the ID of the rental of the provider and period of the specified request, added to the
+   * specified user, and the receipt of it. Either both the rental and the receipt are added or
+   * neither is.
+   *
+   * @param user    The specified user
+   * @param request The specified request
+   * @return The ID of the added rental and the added receipt
+   * @throws IllegalArgumentException If the rental is invalid, the provider is not found or can
+   *                                  not be booked or the provider is not available in the period
+   *                                  of the rental
+   */
+  @Transactional
+  public CheckoutResponse checkout(User user, CheckoutRequest request) {
+    if (request.getProviderId() == null || request.getStartDate() == null
+        || request.getEndDate() == null) {
+      throw new IllegalArgumentException("Rental is invalid");
+    }
+    Provider provider = this.providerRepository.findWithConfigurationById(request.getProviderId())
+        .orElseThrow(() -> new IllegalArgumentException("Provider with ID "
+                                                        + request.getProviderId() + " not found"));
+    Rental rental = new Rental(request.getStartDate().getTime(), request.getEndDate().getTime());
+    rental.setProvider(provider);
+    rental.setUser(user);
+    this.rentalService.add(rental);
+
+    Car car = provider.getConfiguration().getCar();
+    Receipt receipt = new Receipt(car.getMake() + " " + car.getModel(), provider.getName(),
+                                  provider.getLocation(), rental.getStartDate().getTime(),
+                                  rental.getEndDate().getTime(),
+                                  getTotalPrice(provider, rental.getStartDate(),
+                                                rental.getEndDate()));
+    receipt.setUser(user);
+    this.receiptService.add(receipt);
+    return new CheckoutResponse(rental.getId(), receipt);
+  }
+
+  /**
+   * Returns the total price of renting the specified provider between the specified start and end
+   * date. The price of the provider is per day, and both the start and the end date are charged,
+   * the same way a rental books both of them.
+   *
+   * @param provider The specified provider
+   * @param start    The specified start date
+   * @param end      The specified end date
+   * @return The total price of renting the specified provider in the period
+   * @throws IllegalArgumentException If the total price is too large
+   */
+  private static int getTotalPrice(Provider provider, Date start, Date end) {
+    long days = ChronoUnit.DAYS.between(start.toLocalDate(), end.toLocalDate()) + 1;
+    try {
+      return Math.toIntExact(Math.multiplyExact(provider.getPrice(), days));
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Total price is too large");
+    }
+  }
+}
@@ -5,6 +5,7 @@ import no.ntnu.project.group4.webapp.models.Configuration;
 import no.ntnu.project.group4.webapp.repositories.ConfigurationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The ConfigurationService class represents the service class for the configuration entity.
@@ -13,12 +14,15 @@ import org.springframework.stereotype.Service;
 public class ConfigurationService {
   @Autowired
   private ConfigurationRepository configurationRepository;
+  @Autowired
+  private CatalogCache catalogCache;
 
   /**
    * Returns all configurations in the database.
    *
    * @return All configurations in the database
    */
+  @Transactional(readOnly = true)
   public Iterable<Configuration> getAll() {
     return this.configurationRepository.findAll();
   }
@@ -29,6 +33,7 @@ public class ConfigurationService {
    * @param id The specified ID
    * @return The configuration with the specified ID regardless of if it exists or not
    */
+  @Transactional(readOnly = true)
   public Optional<Configuration> getOne(Long id) {
     return this.configurationRepository.findById(id);
   }
@@ -40,11 +45,13 @@ public class ConfigurationService {
    * @return The generated ID of the specified configuration if it is added to the database
    * @throws IllegalArgumentException If the specified configuration is invalid
    */
+  @Transactional
   public Long add(Configuration configuration) {
     if (!configuration.isValid()) {
       throw new IllegalArgumentException("Configuration is invalid");
     }
     this.configurationRepository.save(configuration);
+    this.catalogCache.evictConfiguration(configuration);
     return configuration.getId();
   }
 
@@ -58,6 +65,7 @@ public class ConfigurationService {
    *         specified configuration or false otherwise
    * @throws IllegalArgumentException If the specified configuration is invalid
    */
+  @Transactional
   public boolean update(Long id, Configuration config) {
     Optional<Configuration> existingConfig = this.configurationRepository.findById(id);
     if (!config.isValid()) {
@@ -70,6 +78,7 @@ public class ConfigurationService {
       existingConfigObj.setTransmissionType(config.getTransmissionType());
       existingConfigObj.setNumberOfSeats(config.getNumberOfSeats());
       this.configurationRepository.save(existingConfigObj);
+      this.catalogCache.evictConfiguration(existingConfigObj);
     }
     return existingConfig.isPresent();
   }
@@ -82,10 +91,12 @@ public class ConfigurationService {
    * @return True if the configuration with the specified ID is found and deleted or false
    *         otherwise
    */
+  @Transactional
   public boolean delete(Long id) {
     Optional<Configuration> configuration = this.configurationRepository.findById(id);
     if (configuration.isPresent()) {
       this.configurationRepository.deleteById(id);
+      this.catalogCache.evictConfiguration(configuration.get());
     }
     return configuration.isPresent();
   }
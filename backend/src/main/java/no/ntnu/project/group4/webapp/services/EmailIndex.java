@@ -0,0 +1,119 @@
+package no.ntnu.project.group4.webapp.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * The EmailIndex class represents the index of used emails, used to check if an email is taken.
+ *
+ * <p>Emails are checked against an in-memory Bloom filter of all emails first, so an email that is
+ * definitely new is answered without reading the database. Only a positive answer is confirmed
+ * with an exists query on the unique email index, which does not load the user. Emails are added
+ * to the filter as soon as they are used, before the transaction commits, since a rolled back
+ * email only causes an extra exists query. Deleted emails stay in the filter until it is rebuilt
+ * on a schedule. The unique email index stays the final guard against two registrations with the
+ * same email. The checks are counted in the "email.lookups" metric, tagged with whether the
+ * database was queried.</p>
+ */
+@Service
+public class EmailIndex {
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${email.bloom.expected-insertions:100000}")
+  private long expectedInsertions;
+  @Value("${email.bloom.false-positive-probability:0.01}")
+  private double falsePositiveProbability;
+
+  private volatile BloomFilter filter;
+  // Emails used while the filter is rebuilt, null when no rebuild is in progress
+  private List<String> pendingEmails;
+  private Counter filteredLookups;
+  private Counter queriedLookups;
+
+  /**
+   * Registers the metrics and builds the Bloom filter from the emails of all users.
+   */
+  @PostConstruct
+  public void init() {
+    this.filteredLookups = Counter.builder("email.lookups")
+        .description("Checks of whether an email is used")
+        .tag("queried", "false")
+        .register(this.meterRegistry);
+    this.queriedLookups = Counter.builder("email.lookups")
+        .description("Checks of whether an email is used")
+        .tag("queried", "true")
+        .register(this.meterRegistry);
+    this.rebuild();
+  }
+
+  /**
+   * Checks if a user with the specified email exists. The email is normalized first.
+   *
+   * @param email The specified email
+   * @return True if a user with the specified email exists or false otherwise
+   */
+  public boolean exists(String email) {
+    String normalizedEmail = User.normalizeEmail(email);
+    if (normalizedEmail == null || !this.filter.mightContain(normalizedEmail)) {
+      this.filteredLookups.increment();
+      return false;
+    }
+    this.queriedLookups.increment();
+    return this.userRepository.existsByEmail(normalizedEmail);
+  }
+
+  /**
+   * Adds the specified email to the index. Called when a user is created with the email or
+   * changes to it.
+   *
+   * @param email The specified email
+   */
+  public synchronized void add(String email) {
+    String normalizedEmail = User.normalizeEmail(email);
+    if (normalizedEmail != null) {
+      this.filter.put(normalizedEmail);
+      if (this.pendingEmails != null) {
+        this.pendingEmails.add(normalizedEmail);
+      }
+    }
+  }
+
+  /**
+   * Replaces the Bloom filter with a new one built from the emails of all users, which drops
+   * deleted emails. Emails used while the users are read are added to the new filter as well.
+   */
+  @Scheduled(fixedDelayString = "${email.bloom.rebuild-interval:PT6H}",
+             initialDelayString = "${email.bloom.rebuild-interval:PT6H}")
+  public void rebuild() {
+    synchronized (this) {
+      this.pendingEmails = new ArrayList<>();
+    }
+    List<String> emails = this.userRepository.findAllEmails();
+    BloomFilter next = new BloomFilter(Math.max(this.expectedInsertions, 2L * emails.size()),
+                                       this.falsePositiveProbability);
+    for (String email : emails) {
+      if (email != null) {
+        next.put(User.normalizeEmail(email));
+      }
+    }
+    synchronized (this) {
+      for (String email : this.pendingEmails) {
+        next.put(email);
+      }
+      this.filter = next;
+      this.pendingEmails = null;
+    }
+  }
+}
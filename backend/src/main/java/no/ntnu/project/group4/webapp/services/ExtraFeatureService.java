@@ -5,6 +5,7 @@ import no.ntnu.project.group4.webapp.models.ExtraFeature;
 import no.ntnu.project.group4.webapp.repositories.ExtraFeatureRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The ExtraFeatureService class represents the service class for the extra feature entity.
@@ -13,12 +14,15 @@ import org.springframework.stereotype.Service;
 public class ExtraFeatureService {
   @Autowired
   private ExtraFeatureRepository extraFeatureRepository;
+  @Autowired
+  private CatalogCache catalogCache;
 
   /**
    * Returns all extra features in the database.
    *
    * @return All extra features in the database
    */
+  @Transactional(readOnly = true)
   public Iterable<ExtraFeature> getAll() {
     return this.extraFeatureRepository.findAll();
   }
@@ -29,6 +33,7 @@ public class ExtraFeatureService {
    * @param id The specified ID
    * @return The extra feature with the specified ID regardless of if it exists or not
    */
+  @Transactional(readOnly = true)
   public Optional<ExtraFeature> getOne(Long id) {
     return this.extraFeatureRepository.findById(id);
   }
@@ -40,11 +45,13 @@ public class ExtraFeatureService {
    * @return The generated ID of the specified extra feature if it is added to the database
    * @throws IllegalArgumentException If the specified extra feature is invalid
    */
+  @Transactional
   public Long add(ExtraFeature extraFeature) {
     if (!extraFeature.isValid()) {
       throw new IllegalArgumentException("Extra feature is invalid");
     }
     this.extraFeatureRepository.save(extraFeature);
+    this.catalogCache.evictConfiguration(extraFeature.getConfiguration());
     return extraFeature.getId();
   }
 
@@ -58,6 +65,7 @@ public class ExtraFeatureService {
    *         specified extra feature or false otherwise
    * @throws IllegalArgumentException If the specified extra feature is invalid
    */
+  @Transactional
   public boolean update(Long id, ExtraFeature extraFeature) {
     Optional<ExtraFeature> existingExtraFeature = this.extraFeatureRepository.findById(id);
     if (!extraFeature.isValid()) {
@@ -67,6 +75,7 @@ public class ExtraFeatureService {
       ExtraFeature existingExtraFeatureObj = existingExtraFeature.get();
       existingExtraFeatureObj.setName(extraFeature.getName());
       this.extraFeatureRepository.save(existingExtraFeatureObj);
+      this.catalogCache.evictConfiguration(existingExtraFeatureObj.getConfiguration());
     }
     return existingExtraFeature.isPresent();
   }
@@ -79,10 +88,12 @@ public class ExtraFeatureService {
    * @return True if the extra feature with the specified ID is found and deleted or false
    *         otherwise
    */
+  @Transactional
   public boolean delete(Long id) {
     Optional<ExtraFeature> extraFeature = this.extraFeatureRepository.findById(id);
     if (extraFeature.isPresent()) {
       this.extraFeatureRepository.deleteById(id);
+      this.catalogCache.evictConfiguration(extraFeature.get().getConfiguration());
     }
     return extraFeature.isPresent();
   }
@@ -0,0 +1,131 @@
+package no.ntnu.project.group4.webapp.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The OptimisticRetry class represents the bounded retry policy of updates to versioned entities.
+ *
+ * <p>Providers, cars and rentals are versioned, so an update based on a version that another
+ * transaction has changed since fails when it is written instead of overwriting that change. An
+ * update that sets absolute values and was not based on a version sent by the client is
+ * idempotent, so it is simply run again in a new transaction, up to a maximum number of attempts
+ * with a short random backoff. An update based on a version sent by the client is never retried,
+ * as the client has to see the other change first.</p>
+ */
+@Component
+public class OptimisticRetry {
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${optimistic-lock.max-attempts:3}")
+  private int maxAttempts;
+  @Value("${optimistic-lock.backoff:10ms}")
+  private Duration backoff;
+
+  private TransactionTemplate transactionTemplate;
+  private Counter retriedConflicts;
+  private Counter failedConflicts;
+
+  private final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+  /**
+   * Builds the transaction template and registers the metrics.
+   */
+  @PostConstruct
+  public void init() {
+    this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+    this.retriedConflicts = Counter.builder("optimistic-lock.conflicts")
+        .description("Updates of versioned entities that conflicted with another update")
+        .tag("retried", "true")
+        .register(this.meterRegistry);
+    this.failedConflicts = Counter.builder("optimistic-lock.conflicts")
+        .description("Updates of versioned entities that conflicted with another update")
+        .tag("retried", "false")
+        .register(this.meterRegistry);
+  }
+
+  /**
+   * Returns the result of the specified update, run in its own transaction. If the update
+   * conflicts with another update and is idempotent, it is run again in a new transaction until it
+   * succeeds or the maximum number of attempts is reached. Inside an existing transaction the
+   * update is run once, as the conflict rolls back the whole transaction.
+   *
+   * @param <T>        The type of the result
+   * @param idempotent True if the specified update can be run again or false otherwise
+   * @param update     The specified update
+   * @return The result of the specified update
+   * @throws OptimisticLockingFailureException If the update still conflicts after the last
+   *                                           attempt, or conflicts and is not idempotent
+   */
+  public <T> T execute(boolean idempotent, Supplier<T> update)
+      throws OptimisticLockingFailureException {
+    int attempts = idempotent && !TransactionSynchronizationManager.isActualTransactionActive()
+        ? Math.max(1, this.maxAttempts) : 1;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return this.transactionTemplate.execute(status -> update.get());
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt >= attempts) {
+          this.failedConflicts.increment();
+          throw e;
+        }
+        this.retriedConflicts.increment();
+        this.logger.debug("Update conflicted with another update, retrying...");
+        this.pause(attempt);
+      }
+    }
+  }
+
+  /**
+   * Checks that the specified expected version, sent by a client, is the specified stored version
+   * of the entity of the specified class with the specified ID. A null expected version matches
+   * any stored version.
+   *
+   * @param entityClass     The specified entity class
+   * @param id              The specified ID
+   * @param storedVersion   The specified stored version
+   * @param expectedVersion The specified expected version or null
+   * @throws ObjectOptimisticLockingFailureException If the versions are not the same
+   */
+  static void checkVersion(Class<?> entityClass, Long id, Long storedVersion,
+                           Long expectedVersion) throws ObjectOptimisticLockingFailureException {
+    if (expectedVersion != null && !expectedVersion.equals(storedVersion)) {
+      throw new ObjectOptimisticLockingFailureException(entityClass, id);
+    }
+  }
+
+  /**
+   * Waits a random time up to the backoff multiplied by the specified attempt, so retries of
+   * updates that conflicted with each other do not collide again.
+   *
+   * @param attempt The specified attempt
+   */
+  private void pause(int attempt) {
+    long maxMillis = this.backoff.toMillis() * attempt;
+    if (maxMillis > 0) {
+      try {
+        Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis + 1));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while retrying an update", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package no.ntnu.project.group4.webapp.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.repositories.UserRepository;
+import no.ntnu.project.group4.webapp.security.AccessUserDetails;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The PrincipalCache class represents the bounded in-process cache of authenticated principals.
+ *
+ * <p>Principals are cached by username, so a request with a JWT token does not read the user from
+ * the database. Every principal carries the security version of its user, which is also stored in
+ * the tokens issued to the user. A token newer than the cached principal reloads it, which covers
+ * changes the cache was not told about. Changes to the password, roles, active status or email of a
+ * user evict the principal once they are committed. Entries also expire after a short time to
+ * live. Hits, misses and evictions are published as the "principal" cache metrics.</p>
+ */
+@Service
+public class PrincipalCache {
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${principal.cache.maximum-size:10000}")
+  private long maximumSize;
+  @Value("${principal.cache.expire-after-write:60s}")
+  private Duration expireAfterWrite;
+
+  private Cache<String, AccessUserDetails> cache;
+
+  /**
+   * Builds the cache and registers its metrics.
+   */
+  @PostConstruct
+  public void init() {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(this.maximumSize)
+        .expireAfterWrite(this.expireAfterWrite)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(this.meterRegistry, this.cache, "principal");
+  }
+
+  /**
+   * Returns the principal of the user with the specified username, or null if the user is not
+   * found. The principal is reloaded if it is older than the specified security version.
+   *
+   * @param username        The specified username
+   * @param securityVersion The specified security version of the token
+   * @return The principal of the user with the specified username or null if it is not found
+   */
+  public AccessUserDetails get(String username, long securityVersion) {
+    AccessUserDetails principal = this.cache.get(username, this::load);
+    if (principal != null && principal.getSecurityVersion() < securityVersion) {
+      this.cache.invalidate(username);
+      principal = this.cache.get(username, this::load);
+    }
+    return principal;
+  }
+
+  /**
+   * Returns the cached principal of the user with the specified username without reading the
+   * database, or null if it is not cached.
+   *
+   * @param username The specified username
+   * @return The cached principal of the user with the specified username or null
+   */
+  public AccessUserDetails getIfPresent(String username) {
+    return this.cache.getIfPresent(username);
+  }
+
+  /**
+   * Evicts the principal of the user with the specified username. Inside a transaction the
+   * principal is evicted once it commits.
+   *
+   * @param username The specified username
+   */
+  public void evict(String username) {
+    AfterCommit.run(() -> this.cache.invalidate(username));
+  }
+
+  /**
+   * Returns the principal of the user with the specified username from the database, or null if
+   * the user is not found.
+   *
+   * @param username The specified username
+   * @return The principal of the user with the specified username or null if it is not found
+   */
+  private AccessUserDetails load(String username) {
+    return this.userRepository.findByEmail(User.normalizeEmail(username))
+        .map(AccessUserDetails::new).orElse(null);
+  }
+}
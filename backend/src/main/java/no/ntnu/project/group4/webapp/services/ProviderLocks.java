@@ -0,0 +1,84 @@
+package no.ntnu.project.group4.webapp.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The ProviderLocks class represents the in-process locks serializing bookings of each provider.
+ *
+ * <p>The locks are striped, so memory use is fixed no matter how many providers there are, and
+ * two providers share a lock only when their IDs hash to the same stripe. A lock is held until
+ * the current transaction completes, so a second booking of the same provider cannot check
+ * availability before the first booking is committed and added to the availability index.</p>
+ */
+@Component
+public class ProviderLocks {
+  private final ReentrantLock[] stripes;
+  private final int mask;
+
+  /**
+   * Constructs an instance of the ProviderLocks class. The number of stripes is rounded up to a
+   * power of two.
+   *
+   * @param stripeCount The specified number of stripes
+   */
+  public ProviderLocks(@Value("${rental.lock-stripes:256}") int stripeCount) {
+    int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+    this.stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Locks the provider with the specified ID until the current transaction commits or rolls
+   * back.
+   *
+   * @param providerId The specified provider ID
+   * @throws IllegalStateException If there is no current transaction
+   */
+  public void lockUntilCompletion(Long providerId) throws IllegalStateException {
+    this.lockAllUntilCompletion(List.of(providerId));
+  }
+
+  /**
+   * Locks the providers with the specified IDs until the current transaction commits or rolls
+   * back. The stripes are locked in ascending order, so two transactions locking overlapping sets
+   * of providers cannot deadlock.
+   *
+   * @param providerIds The specified provider IDs
+   * @throws IllegalStateException If there is no current transaction
+   */
+  public void lockAllUntilCompletion(Collection<Long> providerIds) throws IllegalStateException {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("Providers can only be locked inside a transaction");
+    }
+    SortedSet<Integer> indexes = new TreeSet<>();
+    for (Long providerId : providerIds) {
+      indexes.add(Long.hashCode(providerId * 0x9e3779b97f4a7c15L) & this.mask);
+    }
+    List<ReentrantLock> locks = new ArrayList<>();
+    for (int index : indexes) {
+      ReentrantLock lock = this.stripes[index];
+      lock.lock();
+      locks.add(lock);
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        for (ReentrantLock lock : locks) {
+          lock.unlock();
+        }
+      }
+    });
+  }
+}
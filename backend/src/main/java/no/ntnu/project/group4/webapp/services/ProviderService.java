@@ -1,10 +1,16 @@
 package no.ntnu.project.group4.webapp.services;
 
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import no.ntnu.project.group4.webapp.dto.ProviderOfferDto;
 import no.ntnu.project.group4.webapp.models.Provider;
 import no.ntnu.project.group4.webapp.repositories.ProviderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The ProviderService class represents the service class for the provider entity.
@@ -13,12 +19,19 @@ import org.springframework.stereotype.Service;
 public class ProviderService {
   @Autowired
   private ProviderRepository providerRepository;
+  @Autowired
+  private CatalogCache catalogCache;
+  @Autowired
+  private AvailabilityIndex availabilityIndex;
+  @Autowired
+  private OptimisticRetry optimisticRetry;
 
   /**
    * Returns all providers in the database.
    *
    * @return All providers in the database
    */
+  @Transactional(readOnly = true)
   public Iterable<Provider> getAll() {
     return this.providerRepository.findAll();
   }
@@ -29,10 +42,45 @@ public class ProviderService {
    * @param id The specified ID
    * @return The provider with the specified ID regardless of if it exists or not
    */
+  @Transactional(readOnly = true)
   public Optional<Provider> getOne(Long id) {
     return this.providerRepository.findById(id);
   }
 
+  /**
+   * Returns offers for all visible and available providers that match the specified filters and
+   * are free in the period between the specified start and end date. Filters that are null are
+   * ignored.
+   *
+   * @param from     The specified long value for the start date
+   * @param to       The specified long value for the end date
+   * @param location The specified location
+   * @param minPrice The specified minimum price
+   * @param maxPrice The specified maximum price
+   * @param seats    The specified minimum number of seats
+   * @return Offers for all matching providers that are free in the specified period
+   * @throws IllegalArgumentException If the specified period is invalid
+   */
+  @Transactional(readOnly = true)
+  public List<ProviderOfferDto> getAvailableOffers(long from, long to, String location,
+                                                   Integer minPrice, Integer maxPrice,
+                                                   Integer seats) {
+    if (from <= 0 || to < from) {
+      throw new IllegalArgumentException("Search period is invalid");
+    }
+    String locationFilter = location == null || location.isBlank() ? null : location.trim();
+    Date start = new Date(from);
+    Date end = new Date(to);
+    List<ProviderOfferDto> offers = new ArrayList<>();
+    for (ProviderOfferDto offer : this.providerRepository.findOffers(locationFilter, minPrice,
+                                                                     maxPrice, seats)) {
+      if (this.availabilityIndex.isFree(offer.getProviderId(), start, end)) {
+        offers.add(offer);
+      }
+    }
+    return offers;
+  }
+
   /**
    * Returns the generated ID of the specified provider if it is added to the database.
    *
@@ -40,11 +88,15 @@ public class ProviderService {
    * @return The generated ID of the specified provider if it is added to the database
    * @throws IllegalArgumentException If the specified provider is invalid
    */
+  @Transactional
   public Long add(Provider provider) {
     if (!provider.isValid()) {
       throw new IllegalArgumentException("Provider is invalid");
     }
+    // A new provider starts at the first version, whatever version was sent
+    provider.setVersion(null);
     this.providerRepository.save(provider);
+    this.catalogCache.evictProvider(provider);
     return provider.getId();
   }
 
@@ -52,27 +104,23 @@ public class ProviderService {
    * Returns true if the provider with the specified ID is found and updated with the specified
    * provider or false otherwise.
    *
+   * <p>If the specified provider has a version, the update is rejected unless it is the version of
+   * the stored provider. Without a version, the update is retried if another update of the
+   * provider is committed first.</p>
+   *
    * @param id       The specified ID
    * @param provider The specified provider
    * @return True if the provider with the specified ID is found and updated with the specified
    *         provider or false otherwise
-   * @throws IllegalArgumentException If the specified provider is invalid
+   * @throws IllegalArgumentException          If the specified provider is invalid
+   * @throws OptimisticLockingFailureException If the provider was updated by another request
    */
   public boolean update(Long id, Provider provider) {
-    Optional<Provider> existingProvider = this.providerRepository.findById(id);
     if (!provider.isValid()) {
       throw new IllegalArgumentException("Provider is invalid");
     }
-    if (existingProvider.isPresent()) {
-      Provider existingProviderObj = existingProvider.get();
-      existingProviderObj.setName(provider.getName());
-      existingProviderObj.setPrice(provider.getPrice());
-      existingProviderObj.setLocation(provider.getLocation());
-      existingProviderObj.setAvailable(provider.isAvailable());
-      existingProviderObj.setVisible(provider.isVisible());
-      this.providerRepository.save(existingProviderObj);
-    }
-    return existingProvider.isPresent();
+    return this.optimisticRetry.execute(provider.getVersion() == null,
+                                        () -> this.apply(id, provider));
   }
   
   /**
@@ -81,11 +129,41 @@ public class ProviderService {
    * @param id The specified ID
    * @return True if the provider with the specified ID is found and deleted or false otherwise
    */
+  @Transactional
   public boolean delete(Long id) {
     Optional<Provider> provider = this.providerRepository.findById(id);
     if (provider.isPresent()) {
       this.providerRepository.deleteById(id);
+      this.availabilityIndex.removeProvider(id);
+      this.catalogCache.evictProvider(provider.get());
     }
     return provider.isPresent();
   }
+
+  /**
+   * Returns true if the provider with the specified ID is found and updated with the specified
+   * provider in the current transaction or false otherwise.
+   *
+   * @param id       The specified ID
+   * @param provider The specified provider
+   * @return True if the provider with the specified ID is found and updated or false otherwise
+   * @throws OptimisticLockingFailureException If the stored provider has another version than the
+   *                                           specified provider
+   */
+  private boolean apply(Long id, Provider provider) {
+    Optional<Provider> existingProvider = this.providerRepository.findById(id);
+    if (existingProvider.isPresent()) {
+      Provider existingProviderObj = existingProvider.get();
+      OptimisticRetry.checkVersion(Provider.class, id, existingProviderObj.getVersion(),
+                                   provider.getVersion());
+      existingProviderObj.setName(provider.getName());
+      existingProviderObj.setPrice(provider.getPrice());
+      existingProviderObj.setLocation(provider.getLocation());
+      existingProviderObj.setAvailable(provider.isAvailable());
+      existingProviderObj.setVisible(provider.isVisible());
+      this.providerRepository.save(existingProviderObj);
+      this.catalogCache.evictProvider(existingProviderObj);
+    }
+    return existingProvider.isPresent();
+  }
 }
@@ -1,10 +1,17 @@
 package no.ntnu.project.group4.webapp.services;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
+import no.ntnu.project.group4.webapp.dto.ReceiptExportDto;
 import no.ntnu.project.group4.webapp.models.Receipt;
 import no.ntnu.project.group4.webapp.repositories.ReceiptRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The ReceiptService class represents the service class for the receipt entity.
@@ -19,16 +26,46 @@ public class ReceiptService {
    *
    * @return An iterable containing all receipts in the database
    */
+  @Transactional(readOnly = true)
   public Iterable<Receipt> getAll() {
     return this.receiptRepository.findAll();
   }
 
+  /**
+   * Returns the page of receipts with an ID greater than the specified cursor, sorted by ID.
+   *
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of receipts after the specified cursor
+   */
+  @Transactional(readOnly = true)
+  public KeysetPage<Receipt> getPage(long after, int limit) {
+    List<Receipt> receipts =
+        this.receiptRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+    return KeysetPage.of(receipts, limit, Receipt::getId);
+  }
+
+  /**
+   * Passes every receipt in the database to the specified consumer as an export row, sorted by ID.
+   * The rows are streamed from the database, so memory use does not grow with the number of
+   * receipts.
+   *
+   * @param consumer The specified consumer
+   */
+  @Transactional(readOnly = true)
+  public void exportAll(Consumer<ReceiptExportDto> consumer) {
+    try (Stream<ReceiptExportDto> receipts = this.receiptRepository.streamAllForExport()) {
+      receipts.forEach(consumer);
+    }
+  }
+
   /**
    * Returns the receipt with the specified ID regardless of if it exists or not.
    *
    * @param id The specified ID
    * @return The receipt with the specified ID regardless of if it exists or not
    */
+  @Transactional(readOnly = true)
   public Optional<Receipt> getOne(Long id) {
     return this.receiptRepository.findById(id);
   }
@@ -40,6 +77,7 @@ public class ReceiptService {
    * @return The generated ID of the specified receipt if it is added to the database
    * @throws IllegalArgumentException If the specified receipt is invalid
    */
+  @Transactional
   public Long add(Receipt receipt) {
     if (!receipt.isValid()) {
       throw new IllegalArgumentException("The specified receipt is invalid");
@@ -54,6 +92,7 @@ public class ReceiptService {
    * @param id The specified ID
    * @return True if the receipt with the specified ID is found and deleted or false otherwise
    */
+  @Transactional
   public boolean delete(Long id) {
     Optional<Receipt> receipt = this.receiptRepository.findById(id);
     if (receipt.isPresent()) {
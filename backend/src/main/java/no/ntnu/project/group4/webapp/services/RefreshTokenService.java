@@ -0,0 +1,162 @@
+package no.ntnu.project.group4.webapp.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import no.ntnu.project.group4.webapp.models.RefreshToken;
+import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.repositories.RefreshTokenRepository;
+import no.ntnu.project.group4.webapp.repositories.UserRepository;
+import no.ntnu.project.group4.webapp.security.AccessUserDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The RefreshTokenService class represents the service class for the refresh token entity.
+ *
+ * <p>Refreshing looks the token up by the hash of its value and reads the principal from the
+ * principal cache, so it is a constant number of indexed lookups and never checks a password.
+ * A refresh token is rejected if it is expired, if the security version of its user has changed
+ * since it was issued, or if it has been used before. A used token being presented again means it
+ * has been copied, so its whole family is revoked.</p>
+ */
+@Service
+public class RefreshTokenService {
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private PrincipalCache principalCache;
+
+  @Value("${refresh-token.time-to-live:14d}")
+  private Duration timeToLive;
+
+  private static final int TOKEN_BYTES = 32;
+
+  private final SecureRandom random = new SecureRandom();
+
+  private final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+  /**
+   * Returns a new refresh token for the specified principal. The refresh token starts a new
+   * family.
+   *
+   * @param principal The specified principal
+   * @return A new refresh token for the specified principal
+   */
+  @Transactional
+  public String issue(AccessUserDetails principal) {
+    return this.create(this.userRepository.getReferenceById(principal.getId()),
+                       UUID.randomUUID().toString(), principal.getSecurityVersion());
+  }
+
+  /**
+   * Returns the principal of the specified refresh token and a new refresh token replacing it, or
+   * nothing if the specified refresh token is not accepted.
+   *
+   * @param refreshToken The specified refresh token
+   * @return The principal and the new refresh token or nothing if the refresh token is rejected
+   */
+  @Transactional
+  public Optional<Rotation> rotate(String refreshToken) {
+    Optional<RefreshToken> storedToken =
+        this.refreshTokenRepository.findByTokenHash(hash(refreshToken));
+    if (storedToken.isEmpty() || storedToken.get().getExpiresAt() < System.currentTimeMillis()) {
+      return Optional.empty();
+    }
+    RefreshToken token = storedToken.get();
+    if (this.refreshTokenRepository.markUsed(token.getId()) == 0) {
+      this.logger.warn("Refresh token used twice, revoking its family...");
+      this.refreshTokenRepository.deleteFamily(token.getFamilyId());
+      return Optional.empty();
+    }
+    // The ID of the lazy user is read without loading the user
+    AccessUserDetails principal = this.userRepository.findEmailById(token.getUser().getId())
+        .map(email -> this.principalCache.get(email, token.getSecurityVersion()))
+        .orElse(null);
+    if (principal == null || principal.getSecurityVersion() != token.getSecurityVersion()
+        || !principal.isAccountNonLocked()) {
+      this.refreshTokenRepository.deleteFamily(token.getFamilyId());
+      return Optional.empty();
+    }
+    return Optional.of(new Rotation(principal, this.create(token.getUser(), token.getFamilyId(),
+                                                           token.getSecurityVersion())));
+  }
+
+  /**
+   * Revokes the family of the specified refresh token, if it is found.
+   *
+   * @param refreshToken The specified refresh token
+   * @return True if the refresh token was found and its family revoked or false otherwise
+   */
+  @Transactional
+  public boolean revoke(String refreshToken) {
+    Optional<RefreshToken> token = this.refreshTokenRepository.findByTokenHash(hash(refreshToken));
+    token.ifPresent(found -> this.refreshTokenRepository.deleteFamily(found.getFamilyId()));
+    return token.isPresent();
+  }
+
+  /**
+   * Deletes the refresh tokens that have expired.
+   */
+  @Scheduled(fixedDelayString = "${refresh-token.purge-interval:PT1H}")
+  @Transactional
+  public void purgeExpired() {
+    int count = this.refreshTokenRepository.deleteExpired(System.currentTimeMillis());
+    this.logger.info("Purged " + count + " expired refresh tokens");
+  }
+
+  /**
+   * Returns a new refresh token stored for the specified user in the specified family.
+   *
+   * @param user            The specified user
+   * @param familyId        The specified family ID
+   * @param securityVersion The specified security version of the user
+   * @return A new refresh token
+   */
+  private String create(User user, String familyId, long securityVersion) {
+    byte[] bytes = new byte[TOKEN_BYTES];
+    this.random.nextBytes(bytes);
+    String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    this.refreshTokenRepository.save(new RefreshToken(
+        hash(refreshToken), familyId, user, securityVersion,
+        System.currentTimeMillis() + this.timeToLive.toMillis()));
+    return refreshToken;
+  }
+
+  /**
+   * Returns the hex encoded SHA-256 hash of the specified refresh token.
+   *
+   * @param refreshToken The specified refresh token
+   * @return The hex encoded SHA-256 hash of the specified refresh token
+   */
+  private static String hash(String refreshToken) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * The Rotation record represents the result of a successful refresh.
+   *
+   * @param principal    The principal of the refresh token
+   * @param refreshToken The new refresh token replacing the used one
+   */
+  public record Rotation(AccessUserDetails principal, String refreshToken) {
+  }
+}
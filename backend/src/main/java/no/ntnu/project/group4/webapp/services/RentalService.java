@@ -1,34 +1,105 @@
 package no.ntnu.project.group4.webapp.services;
 
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
+import no.ntnu.project.group4.webapp.dto.RentalBatchItemDto;
+import no.ntnu.project.group4.webapp.dto.RentalExportDto;
+import no.ntnu.project.group4.webapp.models.Provider;
 import no.ntnu.project.group4.webapp.models.Rental;
+import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.repositories.ProviderRepository;
 import no.ntnu.project.group4.webapp.repositories.RentalRepository;
+import no.ntnu.project.group4.webapp.repositories.RentalRepository.RentalPeriod;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The RentalService class represents the service class for the rental entity.
+ *
+ * <p>Adding or moving a rental reserves its provider atomically. The availability index rejects
+ * most conflicts without any lock. Otherwise the provider is locked in-process and its row is
+ * locked in the database, the overlap check is repeated against the database, and the rental is
+ * saved, all before either lock is released. The in-process lock keeps concurrent bookings in
+ * this instance from piling up on the database lock, and the database lock covers bookings made
+ * by other instances.</p>
  */
 @Service
 public class RentalService {
   @Autowired
   private RentalRepository rentalRepository;
+  @Autowired
+  private CatalogCache catalogCache;
+  @Autowired
+  private AvailabilityIndex availabilityIndex;
+  @Autowired
+  private ProviderRepository providerRepository;
+  @Autowired
+  private ProviderLocks providerLocks;
+  @Autowired
+  private OptimisticRetry optimisticRetry;
+
+  @Value("${rental.batch.max-size:100}")
+  private int maxBatchSize;
 
   /**
    * Returns all rentals in the database.
    *
    * @return All rentals in the database
    */
+  @Transactional(readOnly = true)
   public Iterable<Rental> getAll() {
     return this.rentalRepository.findAll();
   }
 
+  /**
+   * Returns the page of rentals with an ID greater than the specified cursor, sorted by ID.
+   *
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of rentals after the specified cursor
+   */
+  @Transactional(readOnly = true)
+  public KeysetPage<Rental> getPage(long after, int limit) {
+    List<Rental> rentals =
+        this.rentalRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+    return KeysetPage.of(rentals, limit, Rental::getId);
+  }
+
+  /**
+   * Passes every rental in the database to the specified consumer as an export row, sorted by ID.
+   * The rows are streamed from the database, so memory use does not grow with the number of
+   * rentals.
+   *
+   * @param consumer The specified consumer
+   */
+  @Transactional(readOnly = true)
+  public void exportAll(Consumer<RentalExportDto> consumer) {
+    try (Stream<RentalExportDto> rentals = this.rentalRepository.streamAllForExport()) {
+      rentals.forEach(consumer);
+    }
+  }
+
   /**
    * Returns the rental with the specified ID regardless of if it exists or not.
    *
    * @param id The specified ID
    * @return The rental with the specified ID regardless of if it exists or not
    */
+  @Transactional(readOnly = true)
   public Optional<Rental> getOne(Long id) {
     return this.rentalRepository.findById(id);
   }
@@ -38,38 +109,138 @@ public class RentalService {
    *
    * @param rental The specified rental
    * @return The generated ID of the specified rental if it is added to the database
-   * @throws IllegalArgumentException If the specified rental is invalid
+   * @throws IllegalArgumentException If the specified rental is invalid, its provider can not be
+   *                                  booked or its provider is not available in the period of the
+   *                                  rental
    */
+  @Transactional
   public Long add(Rental rental) {
     if (!rental.isValid()) {
       throw new IllegalArgumentException("Rental is invalid");
     }
+    checkBookable(rental.getProvider());
+    // A new rental starts at the first version, whatever version was sent
+    rental.setVersion(null);
+    this.reserve(rental.getProvider().getId(), rental.getStartDate(), rental.getEndDate(), null);
     this.rentalRepository.save(rental);
+    this.availabilityIndex.add(rental);
+    this.catalogCache.evictProvider(rental.getProvider());
     return rental.getId();
   }
 
+  /**
+   * Returns the generated IDs of rentals of the specified providers and periods, added to the
+   * specified user in one transaction. Either all rentals are added or none are.
+   *
+   * <p>The providers are loaded with one query. The periods are checked against each other and
+   * against the availability index, then all providers are locked in-process and in the database
+   * in a fixed order, so concurrent batches cannot deadlock, and the periods are checked against
+   * the database with one query before the rentals are saved.</p>
+   *
+   * @param user  The specified user
+   * @param items The specified providers and periods
+   * @return The generated IDs of the rentals, in the order of the specified items
+   * @throws IllegalArgumentException If the batch is empty or too large, a rental is invalid, a
+   *                                  provider is not found or can not be booked or a provider is
+   *                                  not available in a period
+   */
+  @Transactional
+  public List<Long> addAll(User user, List<RentalBatchItemDto> items) {
+    if (items == null || items.isEmpty() || items.size() > this.maxBatchSize) {
+      throw new IllegalArgumentException("Batch must contain between 1 and " + this.maxBatchSize
+                                         + " rentals");
+    }
+    Set<Long> providerIds = new TreeSet<>();
+    for (RentalBatchItemDto item : items) {
+      if (item == null || item.getProviderId() == null || item.getStartDate() == null
+          || item.getEndDate() == null) {
+        throw new IllegalArgumentException("Rental is invalid");
+      }
+      providerIds.add(item.getProviderId());
+    }
+    Map<Long, Provider> providers = new HashMap<>();
+    for (Provider provider : this.providerRepository.findWithConfigurationByIdIn(providerIds)) {
+      providers.put(provider.getId(), provider);
+    }
+    List<Rental> rentals = new ArrayList<>();
+    for (RentalBatchItemDto item : items) {
+      Provider provider = providers.get(item.getProviderId());
+      if (provider == null) {
+        throw new IllegalArgumentException("Provider with ID " + item.getProviderId()
+                                           + " not found");
+      }
+      Rental rental = new Rental(item.getStartDate().getTime(), item.getEndDate().getTime());
+      if (!rental.isValid()) {
+        throw new IllegalArgumentException("Rental is invalid");
+      }
+      checkBookable(provider);
+      if (!this.availabilityIndex.isFree(provider.getId(), rental.getStartDate(),
+                                         rental.getEndDate())) {
+        throw new IllegalArgumentException("Provider with ID " + provider.getId()
+                                           + " is not available in the specified period");
+      }
+      rental.setProvider(provider);
+      rental.setUser(user);
+      rentals.add(rental);
+    }
+    checkNoOverlap(rentals);
+
+    this.providerLocks.lockAllUntilCompletion(providerIds);
+    if (this.providerRepository.lockAllById(providerIds).size() != providerIds.size()) {
+      throw new IllegalArgumentException("Provider not found");
+    }
+    Date start = rentals.get(0).getStartDate();
+    Date end = rentals.get(0).getEndDate();
+    for (Rental rental : rentals) {
+      start = rental.getStartDate().before(start) ? rental.getStartDate() : start;
+      end = rental.getEndDate().after(end) ? rental.getEndDate() : end;
+    }
+    for (RentalPeriod period :
+         this.rentalRepository.findPeriodsOverlapping(providerIds, start, end)) {
+      for (Rental rental : rentals) {
+        if (rental.getProvider().getId().equals(period.getProviderId())
+            && overlaps(rental, period.getStartDate(), period.getEndDate())) {
+          throw new IllegalArgumentException("Provider with ID " + period.getProviderId()
+                                             + " is not available in the specified period");
+        }
+      }
+    }
+
+    this.rentalRepository.saveAll(rentals);
+    List<Long> ids = new ArrayList<>();
+    for (Rental rental : rentals) {
+      this.availabilityIndex.add(rental);
+      ids.add(rental.getId());
+    }
+    for (Provider provider : providers.values()) {
+      this.catalogCache.evictProvider(provider);
+    }
+    return ids;
+  }
+
   /**
    * Returns true if the rental with the specified ID is found and updated with the specified
    * rental or false otherwise.
    *
-   * @param id       The specified ID
+   * <p>If the specified rental has a version, the update is rejected unless it is the version of
+   * the stored rental. Without a version, the update is retried if another update of the rental is
+   * committed first.</p>
+   *
+   * @param id     The specified ID
    * @param rental The specified rental
    * @return True if the rental with the specified ID is found and updated with the specified
    *         rental or false otherwise
-   * @throws IllegalArgumentException If the specified rental is invalid
+   * @throws IllegalArgumentException          If the specified rental is invalid or the provider of
+   *                                           the existing rental can not be booked or is not
+   *                                           available in the new period
+   * @throws OptimisticLockingFailureException If the rental was updated by another request
    */
   public boolean update(Long id, Rental rental) {
-    Optional<Rental> existingRental = this.rentalRepository.findById(id);
     if (!rental.isValid()) {
       throw new IllegalArgumentException("Rental is invalid");
     }
-    if (existingRental.isPresent()) {
-      Rental existingRentalObj = existingRental.get();
-      existingRentalObj.setStartDate(rental.getStartDate().getTime());
-      existingRentalObj.setEndDate(rental.getEndDate().getTime());
-      this.rentalRepository.save(existingRentalObj);
-    }
-    return existingRental.isPresent();
+    return this.optimisticRetry.execute(rental.getVersion() == null,
+                                        () -> this.apply(id, rental));
   }
 
   /**
@@ -78,11 +249,133 @@ public class RentalService {
    * @param id The specified ID
    * @return True if the rental with the specified ID is found and deleted or false otherwise
    */
+  @Transactional
   public boolean delete(Long id) {
     Optional<Rental> rental = this.rentalRepository.findById(id);
     if (rental.isPresent()) {
       this.rentalRepository.deleteById(id);
+      this.availabilityIndex.remove(rental.get());
+      this.catalogCache.evictProvider(rental.get().getProvider());
     }
     return rental.isPresent();
   }
+
+  /**
+   * Returns true if the rental with the specified ID is found and updated with the specified
+   * rental in the current transaction or false otherwise.
+   *
+   * @param id     The specified ID
+   * @param rental The specified rental
+   * @return True if the rental with the specified ID is found and updated or false otherwise
+   * @throws IllegalArgumentException          If the provider of the existing rental can not be
+   *                                           booked or is not available in the new period
+   * @throws OptimisticLockingFailureException If the stored rental has another version than the
+   *                                           specified rental
+   */
+  private boolean apply(Long id, Rental rental) {
+    Optional<Rental> existingRental = this.rentalRepository.findById(id);
+    if (existingRental.isPresent()) {
+      Rental existingRentalObj = existingRental.get();
+      OptimisticRetry.checkVersion(Rental.class, id, existingRentalObj.getVersion(),
+                                   rental.getVersion());
+      checkBookable(existingRentalObj.getProvider());
+      this.reserve(existingRentalObj.getProvider().getId(), rental.getStartDate(),
+                   rental.getEndDate(), id);
+      existingRentalObj.setStartDate(rental.getStartDate().getTime());
+      existingRentalObj.setEndDate(rental.getEndDate().getTime());
+      this.rentalRepository.save(existingRentalObj);
+      this.availabilityIndex.add(existingRentalObj);
+      this.catalogCache.evictProvider(existingRentalObj.getProvider());
+    }
+    return existingRental.isPresent();
+  }
+
+  /**
+   * Reserves the provider with the specified ID in the period between the specified start and end
+   * date for the current transaction. The provider stays locked until the transaction completes,
+   * so the caller saves the rental before any other booking of the provider can check the period.
+   *
+   * @param providerId The specified provider ID
+   * @param start      The specified start date
+   * @param end        The specified end date
+   * @param rentalId   The specified ID of the rental being moved, or null for a new rental
+   * @throws IllegalArgumentException If the provider is not found or is not available in the
+   *                                  specified period
+   */
+  private void reserve(Long providerId, Date start, Date end, Long rentalId) {
+    if (!this.isFreeInIndex(providerId, start, end, rentalId)) {
+      throw new IllegalArgumentException("Provider is not available in the specified period");
+    }
+    this.providerLocks.lockUntilCompletion(providerId);
+    if (this.providerRepository.lockById(providerId).isEmpty()) {
+      throw new IllegalArgumentException("Provider not found");
+    }
+    if (this.rentalRepository.existsOverlapping(providerId, start, end, rentalId)) {
+      throw new IllegalArgumentException("Provider is not available in the specified period");
+    }
+  }
+
+  /**
+   * Checks that the specified provider can be booked, which means that it is both available and
+   * visible.
+   *
+   * @param provider The specified provider
+   * @throws IllegalArgumentException If the specified provider can not be booked
+   */
+  private static void checkBookable(Provider provider) {
+    if (provider == null || !provider.isAvailable() || !provider.isVisible()) {
+      throw new IllegalArgumentException("Provider can not be booked");
+    }
+  }
+
+  /**
+   * Checks that no two of the specified rentals of the same provider overlap.
+   *
+   * @param rentals The specified rentals
+   * @throws IllegalArgumentException If two of the specified rentals of the same provider overlap
+   */
+  private static void checkNoOverlap(List<Rental> rentals) {
+    List<Rental> sorted = new ArrayList<>(rentals);
+    sorted.sort(Comparator.comparing((Rental rental) -> rental.getProvider().getId())
+                    .thenComparingLong(rental -> AvailabilityIndex.toDay(rental.getStartDate())));
+    for (int i = 1; i < sorted.size(); i++) {
+      Rental previous = sorted.get(i - 1);
+      Rental rental = sorted.get(i);
+      if (previous.getProvider().getId().equals(rental.getProvider().getId())
+          && overlaps(rental, previous.getStartDate(), previous.getEndDate())) {
+        throw new IllegalArgumentException("Rentals of provider with ID "
+                                           + rental.getProvider().getId() + " overlap");
+      }
+    }
+  }
+
+  /**
+   * Returns true if the specified rental overlaps the period between the specified start and end
+   * date or false otherwise. Both dates are inclusive and compared as whole days, as in the
+   * availability index and the overlap queries, so the time of day never matters.
+   *
+   * @param rental The specified rental
+   * @param start  The specified start date
+   * @param end    The specified end date
+   * @return True if the specified rental overlaps the period or false otherwise
+   */
+  private static boolean overlaps(Rental rental, Date start, Date end) {
+    return AvailabilityIndex.toDay(rental.getStartDate()) <= AvailabilityIndex.toDay(end)
+           && AvailabilityIndex.toDay(rental.getEndDate()) >= AvailabilityIndex.toDay(start);
+  }
+
+  /**
+   * Returns true if the availability index has the provider with the specified ID free in the
+   * period between the specified start and end date, ignoring the rental with the specified ID.
+   *
+   * @param providerId The specified provider ID
+   * @param start      The specified start date
+   * @param end        The specified end date
+   * @param rentalId   The specified ID of the rental to ignore, or null to ignore none
+   * @return True if the provider is free in the index or false otherwise
+   */
+  private boolean isFreeInIndex(Long providerId, Date start, Date end, Long rentalId) {
+    return rentalId == null ? this.availabilityIndex.isFree(providerId, start, end)
+                            : this.availabilityIndex.isFree(providerId, start, end, rentalId);
+  }
 }
@@ -0,0 +1,224 @@
+package no.ntnu.project.group4.webapp.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import no.ntnu.project.group4.webapp.models.RevokedToken;
+import no.ntnu.project.group4.webapp.repositories.RevokedTokenRepository;
+import no.ntnu.project.group4.webapp.security.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The RevocationStore class represents the store of revoked JWT tokens.
+ *
+ * <p>Logging out revokes a single token by its token ID. Increasing the security version of a user
+ * revokes every token issued to the user with the old security version, which keeps the public
+ * catalog reads that are authorized from the claims of the token in line with password and role
+ * changes. Revoked tokens are stored in the revoked token table until they expire.</p>
+ *
+ * <p>Every request with a JWT token is checked against an in-memory Bloom filter of the table
+ * first, so nearly all requests are answered without reading the database. Only a positive answer
+ * is confirmed by looking up the token ID in the table. The filter is rebuilt after expired rows
+ * are purged. Exact lookups are counted in the "revocation.lookups" metric, tagged with whether
+ * the token was revoked.</p>
+ *
+ * <p>Every instance of the application has its own filter. A revocation is added to the filter of
+ * the instance revoking it once it commits, and the other instances read the tokens revoked since
+ * their last sync at the sync interval. A token revoked on another instance is therefore accepted
+ * for at most about one sync interval.</p>
+ */
+@Service
+public class RevocationStore {
+  @Autowired
+  private RevokedTokenRepository revokedTokenRepository;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${revocation.bloom.expected-insertions:10000}")
+  private long expectedInsertions;
+  @Value("${revocation.bloom.false-positive-probability:0.01}")
+  private double falsePositiveProbability;
+
+  private volatile BloomFilter filter;
+  // Time of the last read of revocations, in milliseconds since epoch
+  private volatile long syncedAt;
+  // Token IDs revoked while the filter is rebuilt, null when no rebuild is in progress
+  private List<String> pendingTokenIds;
+  private Counter revokedLookups;
+  private Counter falsePositiveLookups;
+
+  // Revocations are read again for this long after the sync that read them, so rows committed
+  // late or stamped by an instance with a clock behind ours are not missed
+  private static final long SYNC_OVERLAP_MILLIS = Duration.ofMinutes(1).toMillis();
+
+  private final Logger logger = LoggerFactory.getLogger(RevocationStore.class);
+
+  /**
+   * Registers the metrics and builds the Bloom filter from the revoked token table.
+   */
+  @PostConstruct
+  public void init() {
+    this.revokedLookups = Counter.builder("revocation.lookups")
+        .description("Exact lookups of revoked tokens after a Bloom filter positive")
+        .tag("revoked", "true")
+        .register(this.meterRegistry);
+    this.falsePositiveLookups = Counter.builder("revocation.lookups")
+        .description("Exact lookups of revoked tokens after a Bloom filter positive")
+        .tag("revoked", "false")
+        .register(this.meterRegistry);
+    this.rebuild();
+  }
+
+  /**
+   * Revokes the JWT token with the specified token ID until the specified expiry time.
+   *
+   * @param tokenId   The specified token ID
+   * @param expiresAt The specified expiry time of the token in milliseconds since epoch
+   */
+  @Transactional
+  public void revokeToken(String tokenId, long expiresAt) {
+    this.revoke(tokenId, expiresAt);
+  }
+
+  /**
+   * Revokes every JWT token issued to the user with the specified ID and the specified security
+   * version, until the last of them has expired. Must be called inside the transaction increasing
+   * the security version.
+   *
+   * @param userId          The specified user ID
+   * @param securityVersion The specified security version
+   */
+  public void revokeSecurityVersion(Long userId, long securityVersion) {
+    this.revoke(securityVersionKey(userId, securityVersion),
+                System.currentTimeMillis() + JwtUtil.TIME_TO_LIVE.toMillis());
+  }
+
+  /**
+   * Checks if the JWT token with the specified token ID, issued to the user with the specified ID
+   * and the specified security version, is revoked. Tokens issued before the token ID or the user
+   * ID was added are only checked by what they have.
+   *
+   * @param tokenId         The specified token ID or null
+   * @param userId          The specified user ID or null
+   * @param securityVersion The specified security version
+   * @return True if the token is revoked or false otherwise
+   */
+  public boolean isRevoked(String tokenId, Long userId, long securityVersion) {
+    return (tokenId != null && this.isRevoked(tokenId))
+           || (userId != null && this.isRevoked(securityVersionKey(userId, securityVersion)));
+  }
+
+  /**
+   * Deletes the revoked tokens that have expired and rebuilds the Bloom filter from the rest.
+   */
+  @Scheduled(fixedDelayString = "${revocation.purge-interval:PT10M}")
+  @Transactional
+  public void purgeExpired() {
+    int count = this.revokedTokenRepository.deleteExpired(System.currentTimeMillis());
+    this.logger.info("Purged " + count + " expired revoked tokens");
+    this.rebuild();
+  }
+
+  /**
+   * Adds the tokens revoked since the last sync, on this or any other instance, to the Bloom
+   * filter.
+   */
+  @Scheduled(fixedDelayString = "${revocation.sync-interval:PT5S}")
+  public void syncRecent() {
+    long now = System.currentTimeMillis();
+    List<String> tokenIds =
+        this.revokedTokenRepository.findTokenIdsRevokedSince(this.syncedAt - SYNC_OVERLAP_MILLIS);
+    for (String tokenId : tokenIds) {
+      this.add(tokenId);
+    }
+    this.syncedAt = now;
+  }
+
+  /**
+   * Stores the revoked token with the specified token ID and adds it to the Bloom filter once the
+   * current transaction commits.
+   *
+   * @param tokenId   The specified token ID
+   * @param expiresAt The specified expiry time in milliseconds since epoch
+   */
+  private void revoke(String tokenId, long expiresAt) {
+    this.revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt));
+    AfterCommit.run(() -> this.add(tokenId));
+  }
+
+  /**
+   * Checks if the specified token ID is revoked. The table is only read on a Bloom filter
+   * positive.
+   *
+   * @param tokenId The specified token ID
+   * @return True if the token ID is revoked or false otherwise
+   */
+  private boolean isRevoked(String tokenId) {
+    if (!this.filter.mightContain(tokenId)) {
+      return false;
+    }
+    boolean revoked = this.revokedTokenRepository.existsById(tokenId);
+    (revoked ? this.revokedLookups : this.falsePositiveLookups).increment();
+    return revoked;
+  }
+
+  /**
+   * Adds the specified token ID to the Bloom filter, and remembers it for the filter being rebuilt
+   * if there is one.
+   *
+   * @param tokenId The specified token ID
+   */
+  private synchronized void add(String tokenId) {
+    this.filter.put(tokenId);
+    if (this.pendingTokenIds != null) {
+      this.pendingTokenIds.add(tokenId);
+    }
+  }
+
+  /**
+   * Replaces the Bloom filter with a new one built from the revoked tokens that have not expired.
+   * Revocations committed after the rebuild starts may be missing from what is read, so they are
+   * remembered and added to the new filter before it replaces the old one.
+   */
+  private void rebuild() {
+    synchronized (this) {
+      this.pendingTokenIds = new ArrayList<>();
+    }
+    long now = System.currentTimeMillis();
+    List<String> tokenIds = this.revokedTokenRepository.findTokenIdsNotExpired(now);
+    BloomFilter next = new BloomFilter(Math.max(this.expectedInsertions, 2L * tokenIds.size()),
+                                       this.falsePositiveProbability);
+    for (String tokenId : tokenIds) {
+      next.put(tokenId);
+    }
+    synchronized (this) {
+      for (String tokenId : this.pendingTokenIds) {
+        next.put(tokenId);
+      }
+      this.filter = next;
+      this.pendingTokenIds = null;
+    }
+    this.syncedAt = Math.max(this.syncedAt, now);
+  }
+
+  /**
+   * Returns the key revoking all tokens issued to the user with the specified ID and the specified
+   * security version.
+   *
+   * @param userId          The specified user ID
+   * @param securityVersion The specified security version
+   * @return The key revoking all tokens of the user with the security version
+   */
+  private static String securityVersionKey(Long userId, long securityVersion) {
+    return "user:" + userId + ":" + securityVersion;
+  }
+}
@@ -1,10 +1,22 @@
 package no.ntnu.project.group4.webapp.services;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
+import no.ntnu.project.group4.webapp.dto.UserDto;
+import no.ntnu.project.group4.webapp.models.Provider;
+import no.ntnu.project.group4.webapp.models.Role;
 import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.repositories.ProviderRepository;
+import no.ntnu.project.group4.webapp.repositories.RefreshTokenRepository;
 import no.ntnu.project.group4.webapp.repositories.UserRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The UserService class represents the service class for the user entity.
@@ -13,22 +25,75 @@ import org.springframework.stereotype.Service;
 public class UserService {
   @Autowired
   private UserRepository userRepository;
+  @Autowired
+  private ProviderRepository providerRepository;
+  @Autowired
+  private PrincipalCache principalCache;
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+  @Autowired
+  private RevocationStore revocationStore;
+  @Autowired
+  private EmailIndex emailIndex;
 
   /**
    * Returns all users in the database.
    *
    * @return All users in the database
    */
+  @Transactional(readOnly = true)
   public Iterable<User> getAll() {
     return this.userRepository.findAll();
   }
 
+  /**
+   * Returns the page of users with an ID greater than the specified cursor, sorted by ID.
+   *
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of users after the specified cursor
+   */
+  @Transactional(readOnly = true)
+  public KeysetPage<User> getPage(long after, int limit) {
+    List<User> users =
+        this.userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+    return KeysetPage.of(users, limit, User::getId);
+  }
+
+  /**
+   * Returns the page of user data with an ID greater than the specified cursor, sorted by ID. The
+   * rentals, receipts and favorites of the users are loaded before the transaction ends, so the
+   * user data can be serialized without a database connection.
+   *
+   * @param after The specified cursor
+   * @param limit The specified page size
+   * @return The page of user data after the specified cursor
+   */
+  @Transactional(readOnly = true)
+  public KeysetPage<UserDto> getDtoPage(long after, int limit) {
+    return this.getPage(after, limit).map(UserService::toDto);
+  }
+
+  /**
+   * Returns the user data of the user with the specified email regardless of if it exists or not.
+   * The rentals, receipts and favorites of the user are loaded before the transaction ends, so the
+   * user data can be serialized without a database connection.
+   *
+   * @param email The specified email
+   * @return The user data of the user with the specified email regardless of if it exists or not
+   */
+  @Transactional(readOnly = true)
+  public Optional<UserDto> getDtoByEmail(String email) {
+    return this.userRepository.findByEmail(User.normalizeEmail(email)).map(UserService::toDto);
+  }
+
   /**
    * Returns the user with the specified ID regardless of if it exists or not.
    *
    * @param id The specified ID
    * @return The user with the specified ID regardless of if it exists or not
    */
+  @Transactional(readOnly = true)
   public Optional<User> getOne(Long id) {
     return this.userRepository.findById(id);
   }
@@ -39,8 +104,9 @@ public class UserService {
    * @param email The specified email
    * @return The user with the specified email regardless of if it exists or not
    */
+  @Transactional(readOnly = true)
   public Optional<User> getOneByEmail(String email) {
-    return this.userRepository.findByEmail(email);
+    return this.userRepository.findByEmail(User.normalizeEmail(email));
   }
 
   /**
@@ -50,17 +116,20 @@ public class UserService {
    * @return The generated ID of the specified user if it is added to the database
    * @throws IllegalArgumentException If the specified user is invalid
    */
+  @Transactional
   public Long add(User user) {
     if (!user.isValid()) {
       throw new IllegalArgumentException("User is invalid");
     }
     this.userRepository.save(user);
+    this.emailIndex.add(user.getEmail());
     return user.getId();
   }
 
   /**
    * Returns true if the user with the specified ID is found and updated with the specified user or
-   * false otherwise.
+   * false otherwise. Tokens issued to the user before the update are no longer accepted if the
+   * password, roles or active status of the user change.
    *
    * @param id   The specified ID
    * @param user The specified user
@@ -68,6 +137,7 @@ public class UserService {
    *         user or false otherwise
    * @throws IllegalArgumentException If the specified user is invalid
    */
+  @Transactional
   public boolean update(Long id, User user) {
     Optional<User> existingUser = this.userRepository.findById(id);
     if (!user.isValid()) {
@@ -75,6 +145,13 @@ public class UserService {
     }
     if (existingUser.isPresent()) {
       User existingUserObj = existingUser.get();
+      String oldEmail = existingUserObj.getEmail();
+      if (!existingUserObj.getPassword().equals(user.getPassword())
+          || existingUserObj.isActive() != user.isActive()
+          || !getRoleNames(existingUserObj).equals(getRoleNames(user))) {
+        this.revocationStore.revokeSecurityVersion(id, existingUserObj.getSecurityVersion());
+        existingUserObj.increaseSecurityVersion();
+      }
       existingUserObj.setFirstName(user.getFirstName());
       existingUserObj.setLastName(user.getLastName());
       existingUserObj.setEmail(user.getEmail());
@@ -86,21 +163,87 @@ public class UserService {
       existingUserObj.setReceipts(user.getReceipts());
       existingUserObj.setFavorites(user.getFavorites());
       this.userRepository.save(existingUserObj);
+      this.emailIndex.add(existingUserObj.getEmail());
+      this.principalCache.evict(oldEmail);
     }
     return existingUser.isPresent();
   }
 
+  /**
+   * Returns true if the user and the provider with the specified IDs are found and the provider is
+   * added to or removed from the favorites of the user or false otherwise. The provider is added
+   * if it is not a favorite of the user, and removed otherwise.
+   *
+   * @param id         The specified ID
+   * @param providerId The specified provider ID
+   * @return True if the user and the provider are found and the favorite is toggled or false
+   *         otherwise
+   */
+  @Transactional
+  public boolean toggleFavorite(Long id, Long providerId) {
+    Optional<User> user = this.userRepository.findById(id);
+    Optional<Provider> provider = this.providerRepository.findById(providerId);
+    if (user.isPresent() && provider.isPresent()) {
+      User foundUser = user.get();
+      // Both entities are read in this transaction, so the provider is the same instance as the
+      // one in the favorites if it is a favorite
+      if (foundUser.getFavorites().contains(provider.get())) {
+        foundUser.removeFavorite(provider.get());
+      } else {
+        foundUser.addFavorite(provider.get());
+      }
+      this.userRepository.save(foundUser);
+    }
+    return user.isPresent() && provider.isPresent();
+  }
+
   /**
    * Returns true if the user with the specified ID is found and deleted or false otherwise.
    *
    * @param id The specified ID
    * @return True if the user with the specified ID is found and deleted or false otherwise
    */
+  @Transactional
   public boolean delete(Long id) {
     Optional<User> user = this.userRepository.findById(id);
     if (user.isPresent()) {
+      this.refreshTokenRepository.deleteByUserId(id);
       this.userRepository.deleteById(id);
+      this.principalCache.evict(user.get().getEmail());
     }
     return user.isPresent();
   }
+
+  /**
+   * Returns the specified user as user data. Must be called inside a transaction, since the lazy
+   * collections of the user are loaded here.
+   *
+   * @param user The specified user
+   * @return The specified user as user data
+   */
+  private static UserDto toDto(User user) {
+    Hibernate.initialize(user.getRentals());
+    Hibernate.initialize(user.getReceipts());
+    for (Provider provider : user.getFavorites()) {
+      Hibernate.initialize(provider.getRentals());
+    }
+    return new UserDto(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                       user.getPhoneNumber(), user.getDateOfBirth().getTime(), user.isActive(),
+                       user.getRoles(), user.getRentals(), user.getReceipts(),
+                       user.getFavorites());
+  }
+
+  /**
+   * Returns the names of the roles of the specified user.
+   *
+   * @param user The specified user
+   * @return The names of the roles of the specified user
+   */
+  private static Set<String> getRoleNames(User user) {
+    Set<String> roleNames = new HashSet<>();
+    for (Role role : user.getRoles()) {
+      roleNames.add(role.getName());
+    }
+    return roleNames;
+  }
 }
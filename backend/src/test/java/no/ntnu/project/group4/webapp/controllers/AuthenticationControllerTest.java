@@ -0,0 +1,73 @@
+package no.ntnu.project.group4.webapp.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import no.ntnu.project.group4.webapp.dto.AuthenticationRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Tests that login attempts are rate limited per client behind the proxy, where every request
+ * comes from the proxy address and the client address is sent in the X-Forwarded-For header.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:authentication;MODE=MySQL;NON_KEYWORDS=USER,YEAR,VALUE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "jwt_secret_key=authentication-test-secret-key-which-is-long-enough",
+    "ADMIN_USERNAME=admin@test.no",
+    "ADMIN_PASSWORD=adminpassword",
+    "USER_USERNAME=user@test.no",
+    "USER_PASSWORD=userpassword",
+    "login.rate-limit.ip.capacity=" + AuthenticationControllerTest.IP_CAPACITY,
+    "login.rate-limit.email.capacity=100"
+})
+class AuthenticationControllerTest {
+  static final int IP_CAPACITY = 2;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Test
+  void forwardedClientsHaveSeparateBuckets() {
+    for (int i = 0; i < IP_CAPACITY; i++) {
+      assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, this.authenticate("203.0.113.1"));
+    }
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, this.authenticate("203.0.113.1"));
+
+    assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, this.authenticate("203.0.113.2"));
+  }
+
+  @Test
+  void forwardedForHeaderIsOnlyTrustedFromProxy() {
+    // A client spoofing the header is still seen by the address the proxy appends
+    for (int i = 0; i < IP_CAPACITY; i++) {
+      assertNotEquals(HttpStatus.TOO_MANY_REQUESTS,
+                      this.authenticate("198.51.100.1, 203.0.113.3"));
+    }
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, this.authenticate("198.51.100.2, 203.0.113.3"));
+  }
+
+  /**
+   * Sends a login attempt with a wrong password from the client with the specified forwarded
+   * address, and returns the status of the response.
+   *
+   * @param forwardedFor The specified X-Forwarded-For header
+   * @return The status of the response
+   */
+  private HttpStatusCode authenticate(String forwardedFor) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("X-Forwarded-For", forwardedFor);
+    AuthenticationRequest request = new AuthenticationRequest("user@test.no", "wrongpassword");
+    return this.restTemplate.postForEntity("/api/authenticate", new HttpEntity<>(request, headers),
+                                           String.class).getStatusCode();
+  }
+}
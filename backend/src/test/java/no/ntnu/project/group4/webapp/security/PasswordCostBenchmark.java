@@ -0,0 +1,77 @@
+package no.ntnu.project.group4.webapp.security;
+
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The PasswordCostBenchmark class represents a benchmark of BCrypt password verification for a
+ * range of cost factors.
+ *
+ * <p>The benchmark is not part of the regular test run. It is run with
+ * {@code mvn test -Dtest=PasswordCostBenchmark} on the machine the application is deployed to,
+ * and only reads its parameters from the benchmark profile, so it needs no database. For each
+ * cost factor it hashes a password once, warms up, then verifies the password a number of times
+ * and logs the median (p50) and 99th percentile (p99) verification latency. The results are used
+ * to choose password.bcrypt.strength.</p>
+ */
+@SpringBootTest(classes = PasswordCostBenchmark.class)
+@ActiveProfiles("benchmark")
+class PasswordCostBenchmark {
+  @Value("${password.bcrypt.benchmark.costs:8,9,10,11,12}")
+  private List<Integer> costs;
+  @Value("${password.bcrypt.benchmark.iterations:50}")
+  private int iterations;
+  @Value("${password.bcrypt.benchmark.warmup-iterations:5}")
+  private int warmupIterations;
+
+  private static final String PASSWORD = "benchmark-password";
+
+  private final Logger logger = LoggerFactory.getLogger(PasswordCostBenchmark.class);
+
+  /**
+   * Runs the benchmark and logs the verification latency of each cost factor.
+   */
+  @Test
+  void logVerificationLatency() {
+    this.logger.info("Benchmarking BCrypt verification with " + this.iterations
+                     + " iterations per cost factor...");
+    for (int cost : this.costs) {
+      BCryptCostPasswordEncoder encoder = new BCryptCostPasswordEncoder(cost);
+      String hash = encoder.encode(PASSWORD);
+      for (int i = 0; i < this.warmupIterations; i++) {
+        encoder.matches(PASSWORD, hash);
+      }
+      long[] nanos = new long[this.iterations];
+      for (int i = 0; i < this.iterations; i++) {
+        long start = System.nanoTime();
+        encoder.matches(PASSWORD, hash);
+        nanos[i] = System.nanoTime() - start;
+      }
+      Arrays.sort(nanos);
+      this.logger.info(String.format("BCrypt cost %2d: p50 %8.2f ms, p99 %8.2f ms", cost,
+                                     percentile(nanos, 0.50) / 1e6,
+                                     percentile(nanos, 0.99) / 1e6));
+    }
+  }
+
+  /**
+   * Returns the specified percentile of the specified sorted latencies, using the nearest rank.
+   *
+   * @param sortedNanos The specified sorted latencies in nanoseconds
+   * @param percentile  The specified percentile between 0 and 1
+   * @return The specified percentile of the latencies in nanoseconds
+   */
+  private static long percentile(long[] sortedNanos, double percentile) {
+    if (sortedNanos.length == 0) {
+      return 0L;
+    }
+    int rank = (int) Math.ceil(percentile * sortedNanos.length);
+    return sortedNanos[Math.max(0, rank - 1)];
+  }
+}
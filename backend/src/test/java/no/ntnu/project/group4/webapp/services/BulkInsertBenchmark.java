@@ -0,0 +1,191 @@
+package no.ntnu.project.group4.webapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import no.ntnu.project.group4.webapp.dto.RentalBatchItemDto;
+import no.ntnu.project.group4.webapp.models.Car;
+import no.ntnu.project.group4.webapp.models.Configuration;
+import no.ntnu.project.group4.webapp.models.ExtraFeature;
+import no.ntnu.project.group4.webapp.models.Provider;
+import no.ntnu.project.group4.webapp.models.Rental;
+import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.repositories.CarRepository;
+import no.ntnu.project.group4.webapp.repositories.ConfigurationRepository;
+import no.ntnu.project.group4.webapp.repositories.ExtraFeatureRepository;
+import no.ntnu.project.group4.webapp.repositories.ProviderRepository;
+import no.ntnu.project.group4.webapp.repositories.RentalRepository;
+import no.ntnu.project.group4.webapp.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The BulkInsertBenchmark class represents a benchmark of inserting many rows at once.
+ *
+ * <p>The benchmark is not part of the regular test run. It is run with
+ * {@code mvn test -Dtest=BulkInsertBenchmark} against the database configured by the same
+ * environment variables as the application, once the initial data is loaded. It first seeds a
+ * number of cars, each with configurations, extra features and providers, saving the rows of each
+ * car together as seeding does, in transactions of a fixed number of cars. It then books batches
+ * of rentals of the seeded providers through {@link RentalService#addAll}. It logs the rows
+ * inserted per second for both, and deletes everything it inserted afterwards.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class BulkInsertBenchmark {
+  @Autowired
+  private RentalService rentalService;
+  @Autowired
+  private CarRepository carRepository;
+  @Autowired
+  private ConfigurationRepository configurationRepository;
+  @Autowired
+  private ExtraFeatureRepository extraFeatureRepository;
+  @Autowired
+  private ProviderRepository providerRepository;
+  @Autowired
+  private RentalRepository rentalRepository;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private AvailabilityIndex availabilityIndex;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${bulk-insert.benchmark.cars:500}")
+  private int carCount;
+  @Value("${bulk-insert.benchmark.cars-per-transaction:50}")
+  private int carsPerTransaction;
+  @Value("${bulk-insert.benchmark.rental-batches:20}")
+  private int rentalBatches;
+  @Value("${bulk-insert.benchmark.rentals-per-batch:100}")
+  private int rentalsPerBatch;
+
+  // Configurations per car, and extra features and providers per configuration.
+  private static final int CHILDREN = 2;
+  // First day of the benchmark rentals, far from any real rental.
+  private static final LocalDate FIRST_DAY = LocalDate.of(2300, 1, 1);
+
+  private final Logger logger = LoggerFactory.getLogger(BulkInsertBenchmark.class);
+
+  /**
+   * Runs the benchmark and logs the throughput of seeding and of batch booking.
+   */
+  @Test
+  void insertInBulk() {
+    List<User> users = this.userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1));
+    assertFalse(users.isEmpty(), "Bulk insert benchmark needs a user");
+    TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+    List<Car> cars = new ArrayList<>();
+    List<Configuration> configurations = new ArrayList<>();
+    List<ExtraFeature> extraFeatures = new ArrayList<>();
+    List<Provider> providers = new ArrayList<>();
+    List<Long> rentalIds = new ArrayList<>();
+    try {
+      long startTime = System.nanoTime();
+      for (int first = 0; first < this.carCount; first += this.carsPerTransaction) {
+        int last = Math.min(this.carCount, first + this.carsPerTransaction);
+        int firstCar = first;
+        transactionTemplate.executeWithoutResult(status -> {
+          for (int i = firstCar; i < last; i++) {
+            this.seedCar(i, cars, configurations, extraFeatures, providers);
+          }
+        });
+      }
+      this.log("seeding", cars.size() + configurations.size() + extraFeatures.size()
+                          + providers.size(), startTime);
+
+      startTime = System.nanoTime();
+      for (int batch = 0; batch < this.rentalBatches; batch++) {
+        rentalIds.addAll(this.rentalService.addAll(users.get(0),
+                                                   this.getBatch(batch, providers)));
+      }
+      this.log("batch booking", rentalIds.size(), startTime);
+    } finally {
+      transactionTemplate.executeWithoutResult(status -> {
+        for (Rental rental : this.rentalRepository.findAllById(rentalIds)) {
+          this.rentalRepository.delete(rental);
+          this.availabilityIndex.remove(rental);
+        }
+        this.providerRepository.deleteAll(providers);
+        this.extraFeatureRepository.deleteAll(extraFeatures);
+        this.configurationRepository.deleteAll(configurations);
+        this.carRepository.deleteAll(cars);
+      });
+    }
+  }
+
+  /**
+   * Saves a car with the specified number, with its configurations, extra features and
+   * providers, and adds them to the specified lists.
+   *
+   * @param number         The specified number
+   * @param cars           The specified list of cars
+   * @param configurations The specified list of configurations
+   * @param extraFeatures  The specified list of extra features
+   * @param providers      The specified list of providers
+   */
+  private void seedCar(int number, List<Car> cars, List<Configuration> configurations,
+                       List<ExtraFeature> extraFeatures, List<Provider> providers) {
+    Car car = this.carRepository.save(new Car("Benchmark", "Model " + number, 2000));
+    cars.add(car);
+    for (int i = 0; i < CHILDREN; i++) {
+      Configuration configuration = new Configuration("Config " + i, "Petrol", "Manual", 5);
+      configuration.setCar(car);
+      configurations.add(this.configurationRepository.save(configuration));
+      for (int j = 0; j < CHILDREN; j++) {
+        ExtraFeature extraFeature = new ExtraFeature("Feature " + j);
+        extraFeature.setConfiguration(configuration);
+        extraFeatures.add(this.extraFeatureRepository.save(extraFeature));
+        Provider provider = new Provider("Provider " + j, 500, "Benchmark", true, true);
+        provider.setConfiguration(configuration);
+        providers.add(this.providerRepository.save(provider));
+      }
+    }
+  }
+
+  /**
+   * Returns the rentals of the batch with the specified number, one day each, spread over the
+   * specified providers so no two rentals of the benchmark overlap.
+   *
+   * @param number    The specified number
+   * @param providers The specified providers
+   * @return The rentals of the batch with the specified number
+   */
+  private List<RentalBatchItemDto> getBatch(int number, List<Provider> providers) {
+    List<RentalBatchItemDto> items = new ArrayList<>();
+    for (int i = 0; i < this.rentalsPerBatch; i++) {
+      int rental = number * this.rentalsPerBatch + i;
+      Date day = new Date(FIRST_DAY.plusDays(2L * (rental / providers.size()))
+                              .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+      items.add(new RentalBatchItemDto(providers.get(rental % providers.size()).getId(), day,
+                                       day));
+    }
+    return items;
+  }
+
+  /**
+   * Logs the throughput of the specified part of the benchmark.
+   *
+   * @param name      The specified name of the part
+   * @param rows      The specified number of inserted rows
+   * @param startTime The specified start time in nanoseconds
+   */
+  private void log(String name, int rows, long startTime) {
+    double seconds = (System.nanoTime() - startTime) / 1e9;
+    this.logger.info(String.format("Bulk insert benchmark, %s: %d rows in %.2f s, %.0f rows/s",
+                                   name, rows, seconds, rows / seconds));
+  }
+}
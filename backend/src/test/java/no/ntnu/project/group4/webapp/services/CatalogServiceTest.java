@@ -0,0 +1,141 @@
+package no.ntnu.project.group4.webapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import no.ntnu.project.group4.webapp.dto.CarDto;
+import no.ntnu.project.group4.webapp.dto.ConfigurationDto;
+import no.ntnu.project.group4.webapp.dto.KeysetPage;
+import no.ntnu.project.group4.webapp.models.Car;
+import no.ntnu.project.group4.webapp.models.Configuration;
+import no.ntnu.project.group4.webapp.models.ExtraFeature;
+import no.ntnu.project.group4.webapp.models.Provider;
+import no.ntnu.project.group4.webapp.models.Rental;
+import no.ntnu.project.group4.webapp.models.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Tests that the catalog is read with a fixed number of SQL statements, however many cars,
+ * configurations, providers and rentals it contains.
+ */
+@DataJpaTest(showSql = false, properties = {
+    "spring.datasource.url=jdbc:h2:mem:catalog;MODE=MySQL;NON_KEYWORDS=USER,YEAR,VALUE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CatalogService.class)
+class CatalogServiceTest {
+  private static final int CARS = 12;
+  private static final int CONFIGURATIONS_PER_CAR = 3;
+  private static final int PROVIDERS_PER_CONFIGURATION = 3;
+  private static final int MAX_CARS_STATEMENTS = 5;
+  private static final int MAX_CONFIGURATIONS_STATEMENTS = 4;
+
+  @Autowired
+  private CatalogService catalogService;
+  @Autowired
+  private TestEntityManager entityManager;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  /**
+   * Seeds a catalog where every car has several configurations, every configuration has extra
+   * features and providers, and every provider has rentals, some of them hidden.
+   */
+  @BeforeEach
+  void seedCatalog() {
+    User user = new User("Test", "User", "catalog@test.no", 12345678, "password",
+                         Date.valueOf(LocalDate.of(2000, 1, 1)));
+    this.entityManager.persist(user);
+    for (int i = 0; i < CARS; i++) {
+      Car car = this.entityManager.persist(new Car("Make", "Model " + i, 2020));
+      for (int j = 0; j < CONFIGURATIONS_PER_CAR; j++) {
+        Configuration configuration = new Configuration("Config " + j, "Petrol", "Manual", 5);
+        configuration.setCar(car);
+        this.entityManager.persist(configuration);
+        ExtraFeature extraFeature = new ExtraFeature("Feature " + j);
+        extraFeature.setConfiguration(configuration);
+        this.entityManager.persist(extraFeature);
+        for (int k = 0; k < PROVIDERS_PER_CONFIGURATION; k++) {
+          Provider provider = new Provider("Provider " + k, 500, "Trondheim", true, k != 0);
+          provider.setConfiguration(configuration);
+          this.entityManager.persist(provider);
+          for (int day = 1; day <= 2; day++) {
+            Rental rental = new Rental(Date.valueOf(LocalDate.of(2030, 1, day)).getTime(),
+                                       Date.valueOf(LocalDate.of(2030, 1, day)).getTime());
+            rental.setProvider(provider);
+            rental.setUser(user);
+            this.entityManager.persist(rental);
+          }
+        }
+      }
+    }
+    this.entityManager.flush();
+    this.entityManager.clear();
+    this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    this.statistics.clear();
+  }
+
+  @Test
+  void carsAreReadWithFixedNumberOfStatements() {
+    for (CatalogView view : CatalogView.values()) {
+      this.statistics.clear();
+      KeysetPage<CarDto> page = this.catalogService.getCars(view, 0L, 100);
+
+      assertEquals(CARS, page.getItems().size());
+      assertEquals(CONFIGURATIONS_PER_CAR, page.getItems().get(0).getConfigurations().size());
+      assertStatementsAtMost(MAX_CARS_STATEMENTS, "cars in the " + view + " view");
+    }
+  }
+
+  @Test
+  void configurationsAreReadWithFixedNumberOfStatements() {
+    for (CatalogView view : CatalogView.values()) {
+      this.statistics.clear();
+      KeysetPage<ConfigurationDto> page = this.catalogService.getConfigurations(view, 0L, 100);
+
+      assertEquals(CARS * CONFIGURATIONS_PER_CAR, page.getItems().size());
+      assertStatementsAtMost(MAX_CONFIGURATIONS_STATEMENTS,
+                             "configurations in the " + view + " view");
+    }
+  }
+
+  @Test
+  void singleCarIsReadWithFixedNumberOfStatements() {
+    List<CarDto> cars = this.catalogService.getCars(CatalogView.ADMIN, 0L, 1).getItems();
+    this.statistics.clear();
+
+    assertTrue(this.catalogService.getCar(cars.get(0).getId(), CatalogView.PUBLIC).isPresent());
+    assertStatementsAtMost(MAX_CARS_STATEMENTS - 1, "a single car");
+  }
+
+  /**
+   * Asserts that at most the specified number of statements were prepared since the statistics
+   * were last cleared.
+   *
+   * @param max  The specified maximum number of statements
+   * @param read The specified description of the read
+   */
+  private void assertStatementsAtMost(int max, String read) {
+    long statements = this.statistics.getPrepareStatementCount();
+    assertTrue(statements <= max,
+               "Reading " + read + " took " + statements + " statements, expected at most " + max);
+  }
+}
@@ -0,0 +1,193 @@
+package no.ntnu.project.group4.webapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import no.ntnu.project.group4.webapp.models.Provider;
+import no.ntnu.project.group4.webapp.repositories.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The ProviderUpdateBenchmark class represents a benchmark of concurrent provider updates.
+ *
+ * <p>The benchmark is not part of the regular test run. It is run with
+ * {@code mvn test -Dtest=ProviderUpdateBenchmark} against the database configured by the same
+ * environment variables as the application, once the initial data is loaded. It sends a number of
+ * concurrent updates to one provider, where every update competes with the others, and then
+ * spreads the same number of updates over several providers. Each run is done twice: with
+ * optimistic locking, where conflicting updates are retried by {@link OptimisticRetry}, and with
+ * the provider row locked for the whole update. It logs the updates per second, the retried
+ * conflicts and the updates that failed. The providers are restored afterwards.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class ProviderUpdateBenchmark {
+  @Autowired
+  private ProviderService providerService;
+  @Autowired
+  private ProviderRepository providerRepository;
+  @Autowired
+  private CatalogCache catalogCache;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${provider.benchmark.requests:1000}")
+  private int requests;
+  @Value("${provider.benchmark.providers:16}")
+  private int providerCount;
+  @Value("${provider.benchmark.threads:32}")
+  private int threads;
+
+  private final Logger logger = LoggerFactory.getLogger(ProviderUpdateBenchmark.class);
+
+  /**
+   * Runs the benchmark for one provider and for several providers, with both kinds of locking.
+   *
+   * @throws InterruptedException If the benchmark is interrupted
+   */
+  @Test
+  void updateConcurrently() throws InterruptedException {
+    List<Provider> providers =
+        this.providerRepository.findWithConfigurationAfter(0L, Limit.of(this.providerCount));
+    assertFalse(providers.isEmpty(), "Provider benchmark needs a provider");
+    try {
+      for (List<Provider> targets : List.of(providers.subList(0, 1), providers)) {
+        this.measure("optimistic", targets, this::updateOptimistic);
+        this.measure("pessimistic", targets, this::updatePessimistic);
+      }
+    } finally {
+      for (Provider provider : providers) {
+        this.providerService.update(provider.getId(), copyOf(provider, provider.getPrice()));
+      }
+    }
+  }
+
+  /**
+   * Sends the concurrent updates of the specified providers through the specified update and logs
+   * the results.
+   *
+   * @param name      The specified name of the kind of locking
+   * @param providers The specified providers
+   * @param update    The specified update
+   * @throws InterruptedException If the benchmark is interrupted
+   */
+  private void measure(String name, List<Provider> providers, Update update)
+      throws InterruptedException {
+    double retriesBefore = this.getRetriedConflicts();
+    AtomicInteger updated = new AtomicInteger();
+    AtomicInteger failed = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(this.requests);
+    ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+    for (int i = 0; i < this.requests; i++) {
+      Provider original = providers.get(i % providers.size());
+      // Every update sets another price, so no update is skipped as unchanged
+      Provider provider = copyOf(original, original.getPrice() + 1 + i);
+      executor.execute(() -> {
+        try {
+          start.await();
+          update.apply(original.getId(), provider);
+          updated.incrementAndGet();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+          failed.incrementAndGet();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    long startTime = System.nanoTime();
+    start.countDown();
+    done.await();
+    double seconds = (System.nanoTime() - startTime) / 1e9;
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+    this.logger.info(String.format(
+        "Provider benchmark, %s: %d updates of %d providers on %d threads in %.2f s, "
+        + "%.0f updates/s, %.0f retried conflicts, %d failed", name, this.requests,
+        providers.size(), this.threads, seconds, updated.get() / seconds,
+        this.getRetriedConflicts() - retriesBefore, failed.get()));
+  }
+
+  /**
+   * Updates the provider with the specified ID with optimistic locking, retrying on conflicts.
+   *
+   * @param id       The specified ID
+   * @param provider The specified provider
+   */
+  private void updateOptimistic(Long id, Provider provider) {
+    this.providerService.update(id, provider);
+  }
+
+  /**
+   * Updates the provider with the specified ID with its row locked until the update commits.
+   *
+   * @param id       The specified ID
+   * @param provider The specified provider
+   */
+  private void updatePessimistic(Long id, Provider provider) {
+    new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+      this.providerRepository.lockById(id);
+      Provider existingProvider = this.providerRepository.findById(id).orElseThrow();
+      existingProvider.setPrice(provider.getPrice());
+      this.providerRepository.save(existingProvider);
+      this.catalogCache.evictProvider(existingProvider);
+    });
+  }
+
+  /**
+   * Returns a copy of the specified provider with the specified price and without a version.
+   *
+   * @param provider The specified provider
+   * @param price    The specified price
+   * @return A copy of the specified provider with the specified price
+   */
+  private static Provider copyOf(Provider provider, int price) {
+    return new Provider(provider.getName(), price, provider.getLocation(), provider.isAvailable(),
+                        provider.isVisible());
+  }
+
+  /**
+   * Returns the number of conflicts retried so far.
+   *
+   * @return The number of conflicts retried so far
+   */
+  private double getRetriedConflicts() {
+    return this.meterRegistry.get("optimistic-lock.conflicts").tag("retried", "true").counter()
+        .count();
+  }
+
+  /**
+   * The Update interface represents one way of updating a provider.
+   */
+  @FunctionalInterface
+  private interface Update {
+    /**
+     * Updates the provider with the specified ID with the specified provider.
+     *
+     * @param id       The specified ID
+     * @param provider The specified provider
+     * @throws OptimisticLockingFailureException If the update conflicts with another update
+     */
+    void apply(Long id, Provider provider) throws OptimisticLockingFailureException;
+  }
+}
@@ -0,0 +1,144 @@
+package no.ntnu.project.group4.webapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import no.ntnu.project.group4.webapp.models.Provider;
+import no.ntnu.project.group4.webapp.models.Rental;
+import no.ntnu.project.group4.webapp.models.User;
+import no.ntnu.project.group4.webapp.repositories.ProviderRepository;
+import no.ntnu.project.group4.webapp.repositories.RentalRepository;
+import no.ntnu.project.group4.webapp.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The RentalReservationBenchmark class represents a benchmark of concurrent rental creation.
+ *
+ * <p>The benchmark is not part of the regular test run. It is run with
+ * {@code mvn test -Dtest=RentalReservationBenchmark} against the database configured by the same
+ * environment variables as the application, once the initial data is loaded. It sends a number
+ * of concurrent booking requests for the first provider, spread over a smaller number of one day
+ * periods far in the future, so most requests compete for a period that another request also
+ * wants. It logs the requests and bookings per second, and asserts that exactly one booking
+ * succeeded per period and that no two bookings overlap. The bookings are deleted afterwards.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class RentalReservationBenchmark {
+  @Autowired
+  private RentalService rentalService;
+  @Autowired
+  private RentalRepository rentalRepository;
+  @Autowired
+  private ProviderRepository providerRepository;
+  @Autowired
+  private UserRepository userRepository;
+
+  @Value("${rental.benchmark.requests:1000}")
+  private int requests;
+  @Value("${rental.benchmark.periods:100}")
+  private int periods;
+  @Value("${rental.benchmark.threads:64}")
+  private int threads;
+
+  // First day of the benchmark periods, far from any real rental.
+  private static final LocalDate FIRST_DAY = LocalDate.of(2200, 1, 1);
+
+  private final Logger logger = LoggerFactory.getLogger(RentalReservationBenchmark.class);
+
+  /**
+   * Runs the benchmark and logs the throughput and the number of double bookings.
+   *
+   * @throws InterruptedException If the benchmark is interrupted
+   */
+  @Test
+  void bookConcurrently() throws InterruptedException {
+    List<Provider> providers =
+        this.providerRepository.findWithConfigurationAfter(0L, Limit.of(1));
+    List<User> users = this.userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1));
+    assertFalse(providers.isEmpty() || users.isEmpty(),
+                "Rental benchmark needs a provider and a user");
+    Provider provider = providers.get(0);
+    User user = users.get(0);
+    Queue<Long> rentalIds = new ConcurrentLinkedQueue<>();
+    AtomicInteger rejected = new AtomicInteger();
+    AtomicInteger failed = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(this.requests);
+    ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+    for (int i = 0; i < this.requests; i++) {
+      long day = toMillis(FIRST_DAY.plusDays(2L * (i % this.periods)));
+      executor.execute(() -> {
+        try {
+          start.await();
+          Rental rental = new Rental(day, day);
+          rental.setProvider(provider);
+          rental.setUser(user);
+          rentalIds.add(this.rentalService.add(rental));
+        } catch (IllegalArgumentException e) {
+          rejected.incrementAndGet();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+          failed.incrementAndGet();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    long startTime = System.nanoTime();
+    start.countDown();
+    done.await();
+    double seconds = (System.nanoTime() - startTime) / 1e9;
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+
+    int doubleBookings = 0;
+    for (Long rentalId : rentalIds) {
+      Rental rental = this.rentalRepository.findById(rentalId).orElseThrow();
+      if (this.rentalRepository.existsOverlapping(provider.getId(), rental.getStartDate(),
+                                                  rental.getEndDate(), rentalId)) {
+        doubleBookings++;
+      }
+    }
+    this.logger.info(String.format(
+        "Rental benchmark: %d requests for %d periods on %d threads in %.2f s, "
+        + "%.0f requests/s, %.0f bookings/s", this.requests, this.periods, this.threads, seconds,
+        this.requests / seconds, rentalIds.size() / seconds));
+    this.logger.info("Rental benchmark: " + rentalIds.size() + " booked, " + rejected.get()
+                     + " rejected as unavailable, " + failed.get() + " failed, "
+                     + doubleBookings + " double bookings");
+    for (Long rentalId : rentalIds) {
+      this.rentalService.delete(rentalId);
+    }
+    assertEquals(0, doubleBookings, "Double bookings");
+    assertEquals(Math.min(this.requests, this.periods), rentalIds.size(), "Bookings");
+  }
+
+  /**
+   * Returns the specified day as milliseconds since epoch at the start of the day.
+   *
+   * @param day The specified day
+   * @return The specified day as milliseconds since epoch
+   */
+  private static long toMillis(LocalDate day) {
+    return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
@@ -31,6 +31,7 @@ import { zodResolver } from "@hookform/resolvers/zod";
 import { z } from "zod";
 import { useRouter } from "next/navigation";
 import { useStore } from "@/tools/authentication";
+import { setCookie } from "@/tools/cookies";
 
 const formSchema = z.object({
   firstName: z.string(),
@@ -98,8 +99,13 @@ export default function AccountSettings({ userDetails, setOpen }) {
       const response = await asyncApiRequest(
         "PUT",
         `/api/users/${Email}/password`,
-        requestBody,true
+        requestBody
       );
+      // Tokens issued before the password change are no longer accepted
+      if (response && response.jwt) {
+        setCookie("jwt", response.jwt);
+        setCookie("refresh_token", response.refreshToken);
+      }
       setPasswordChangeStatus('Password changed successfully.');  
         
     } catch (error) {
@@ -152,7 +158,7 @@ export default function AccountSettings({ userDetails, setOpen }) {
       const response = await asyncApiRequest(
         "DELETE",
         `/api/users/${user.email}`,
-        requestBody,true
+        requestBody
       );
   
     } catch (error) {
@@ -1,6 +1,6 @@
 import { getCookie } from "@/tools/cookies";
 import React, { useEffect, useState } from "react";
-import { asyncApiRequest } from "@/tools/request";
+import { asyncApiRequest, asyncApiRequestAll } from "@/tools/request";
 import { Input } from "@/components/ui/input";
 import { Button } from "@/components/ui/button";
 import { useForm } from "react-hook-form";
@@ -54,17 +54,23 @@ export default function CarEditor() {
   });
 
   const onSubmit = async (values) => {
+    // Send the version that was shown, so changes made by others in the meantime are not
+    // overwritten. The update is rejected with 409 Conflict instead
+    const shown = cars.find((item) => String(item.id) === String(carId));
+    const body = shown ? { ...values, version: shown.version } : values;
     try {
       const response = await asyncApiRequest(
         "PUT",
         `/api/cars/${carId}`,
-        values,
+        body,
         true
       );
       updateJsonFile();
 
     } catch (error) {
       console.error("Error updating car details: ", error);
+      // Show the current data if someone else updated it first
+      updateJsonFile();
     }
   };
 
@@ -72,7 +78,7 @@ export default function CarEditor() {
   const updateJsonFile = async () => {
     try {
       //check data
-      let data = await asyncApiRequest("GET", "/api/cars");
+      let data = await asyncApiRequestAll("/api/cars");
 
       if (data) {
         // Add img property to each car configuration
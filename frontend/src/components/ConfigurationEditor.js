@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from "react";
-import { asyncApiRequest } from "@/tools/request";
+import { asyncApiRequest, asyncApiRequestAll } from "@/tools/request";
 import { Input } from "@/components/ui/input";
 import { Button } from "@/components/ui/button";
 import { useForm } from "react-hook-form";
@@ -74,7 +74,7 @@ export default function ConfigurationEditor() {
   const updateJsonFile = async () => {
     try {
       //check data
-      let data = await asyncApiRequest("GET", "/api/cars");
+      let data = await asyncApiRequestAll("/api/cars");
 
       if (data) {
         // Add img property to each car configuration
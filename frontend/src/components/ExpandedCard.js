@@ -39,19 +39,17 @@ const expandedCard = ({ carInfo, dates, showConfirmation}) => {
                 const bookingConfirmed = await confirmationDialogRef.current.openDialog();
                 if (bookingConfirmed) {
                     const body = {
+                        email: user.email,
+                        providerId: carInfo.provider.id,
                         startDate: dates.start,
                         endDate: dates.end,
                     }
 
-                    const response = await asyncApiRequest("POST", "/api/rentals/" + user.email + "/" + carInfo.provider.id, body)
+                    const response = await asyncApiRequest("POST", "/api/checkout", body)
                     if (response) {
                         console.log("Booking successful")
                         console.log("Booking response: ", response)
 
-                        const rentalID = response;
-
-                        sendReceiptRequest(rentalID)
-
                         showConfirmation();
                     } else {
                         setAlreadyBooked(true);
@@ -65,18 +63,6 @@ const expandedCard = ({ carInfo, dates, showConfirmation}) => {
         }
     }
 
-    function getTotalPrice() {
-        const days = Math.floor((dates.end - dates.start) / (1000 * 60 * 60 * 24));
-        return days * carInfo.price;
-    }
-
-    async function sendReceiptRequest(rentalID) {
-        const total = getTotalPrice();
-        console.log("Sending receipt request with", user.email, rentalID, total)
-        const response = await asyncApiRequest("POST", "/api/receipts/" + user.email + "/" + rentalID, total)
-        console.log("Receipt response: ", response)
-    }
-
     return (
         <div className="h-full">
             <ConfirmationAlert ref={confirmationDialogRef} />
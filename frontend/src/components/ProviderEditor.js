@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from "react";
-import { asyncApiRequest } from "@/tools/request";
+import { asyncApiRequest, asyncApiRequestAll } from "@/tools/request";
 import { Input } from "@/components/ui/input";
 import { Button } from "@/components/ui/button";
 import { useForm } from "react-hook-form";
@@ -58,17 +58,23 @@ export default function ProviderEditor() {
   });
 
   const onSubmit = async (values) => {
+    // Send the version that was shown, so changes made by others in the meantime are not
+    // overwritten. The update is rejected with 409 Conflict instead
+    const shown = providers.find((item) => String(item.id) === String(providerId));
+    const body = shown ? { ...values, version: shown.version } : values;
     try {
       const responseProviders = await asyncApiRequest(
         "PUT",
         `/api/providers/${providerId}`,
-        values,
+        body,
         true
       );
       updateJsonFile();
 
     } catch (error) {
       console.error("Error updating details: ", error);
+      // Show the current data if someone else updated it first
+      updateJsonFile();
     }
   };
 
@@ -76,7 +82,7 @@ export default function ProviderEditor() {
   const updateJsonFile = async () => {
     try {
       //check data
-      let data = await asyncApiRequest("GET", "/api/cars");
+      let data = await asyncApiRequestAll("/api/cars");
 
       if (data) {
         // Add img property to each car configuration
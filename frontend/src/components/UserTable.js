@@ -16,7 +16,7 @@ import {
   PaginationNext,
   PaginationPrevious,
 } from "@/components/ui/pagination";
-import { asyncApiRequest } from "@/tools/request";
+import { asyncApiRequestAll } from "@/tools/request";
 import Head from "next/head";
 import { Input } from "@/components/ui/input";
 
@@ -29,7 +29,7 @@ export function UserTable() {
   useEffect(() => {
     const fetchUsers = async () => {
       try {
-        const fetchedUsers = await asyncApiRequest("GET", "/api/users");
+        const fetchedUsers = await asyncApiRequestAll("/api/users");
         setUsers(fetchedUsers);
       } catch (error) {
         console.error("Error fetching users: ", error);
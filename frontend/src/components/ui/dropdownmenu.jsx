@@ -18,14 +18,14 @@ import Link from "next/link";
 import Image from "next/image";
 import userIcon from "@/img/icons/person.svg";
 import React from "react";
-import {deleteAuthorizationCookies, useStore} from "@/tools/authentication";
+import {sendLogoutRequest, useStore} from "@/tools/authentication";
 
 export function DropDownMenu() {
     const logout = useStore((state) => state.logout);
 
 
     function handleLogout() {
-        deleteAuthorizationCookies();
+        sendLogoutRequest();
         logout();
         console.log(User + "User has logged out");
     }
@@ -75,10 +75,9 @@ export function isJwtExpired() {
 }
 
 export function reauthenticateUser() {
-    const email = getCookie("current_email");
-    const jwt = getCookie("jwt");
-    if (email && jwt) {
-        sendAuthenticationRequest(email, jwt, (userData) => {
+    const refreshToken = getCookie("refresh_token");
+    if (refreshToken) {
+        sendRefreshRequest(refreshToken, (userData) => {
             console.log("Reauthenticated user: ", userData);
         }, (error) => {
             console.error("Error reauthenticating user: ", error);
@@ -86,6 +85,17 @@ export function reauthenticateUser() {
     }
 }
 
+export async function sendRefreshRequest(refreshToken, successCallBack, errorCallBack) {
+    try {
+        const jwtResponse = await asyncApiRequest("POST", "/api/refresh", {
+            refreshToken: refreshToken,
+        });
+        storeAuthenticationResponse(jwtResponse, successCallBack);
+    } catch (httpError) {
+        errorCallBack(httpError);
+    }
+}
+
 export async function sendAuthenticationRequest(
     email,
     password,
@@ -99,21 +109,28 @@ export async function sendAuthenticationRequest(
     try {
         const jwtResponse = await asyncApiRequest("POST", "/api/authenticate", postData);
         console.log("JWT response: ", jwtResponse);
-        if (jwtResponse && jwtResponse.jwt) {
-            const userData = parseJwtUser(jwtResponse.jwt);
-            console.log("Parsed User data: ", userData)
-            setCookie("jwt", jwtResponse.jwt);
-            if (userData) {
-                setCookie("current_email", userData.email);
-                setCookie("current_user_roles", userData.roles.join(","));
-                successCallBack(userData);
-            }
-        }
+        storeAuthenticationResponse(jwtResponse, successCallBack);
     } catch (httpError) {
         errorCallBack(httpError);
     }
 }
 
+export function storeAuthenticationResponse(jwtResponse, successCallBack) {
+    if (jwtResponse && jwtResponse.jwt) {
+        const userData = parseJwtUser(jwtResponse.jwt);
+        console.log("Parsed User data: ", userData)
+        setCookie("jwt", jwtResponse.jwt);
+        if (jwtResponse.refreshToken) {
+            setCookie("refresh_token", jwtResponse.refreshToken);
+        }
+        if (userData) {
+            setCookie("current_email", userData.email);
+            setCookie("current_user_roles", userData.roles.join(","));
+            successCallBack(userData);
+        }
+    }
+}
+
 function parseJwt(token) {
     const base64Url = token.split(".")[1];
     const base64 = base64Url.replace(/-/g, "+").replace(/_/g, "/");
@@ -134,14 +151,25 @@ function parseJwtUser(jwtString) {
     if (jwtObject) {
         user = {
             email: jwtObject.sub,
-            roles: jwtObject.roles.map((r) => r.authority),
+            roles: jwtObject.roles,
         };
     }
     return user;
 }
 
+export function sendLogoutRequest() {
+    // The request reads the JWT cookie when it is sent, so the cookies can be deleted right after
+    asyncApiRequest("POST", "/api/logout", {
+        refreshToken: getCookie("refresh_token"),
+    }, true).catch((error) => {
+        console.error("Error logging out: ", error);
+    });
+    deleteAuthorizationCookies();
+}
+
 export function deleteAuthorizationCookies() {
     deleteCookie("jwt");
+    deleteCookie("refresh_token");
     deleteCookie("current_email");
     deleteCookie("current_user_roles");
 }
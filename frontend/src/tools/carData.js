@@ -1,5 +1,5 @@
 import { create } from "zustand";
-import { asyncApiRequest } from "@/tools/request";
+import { asyncApiRequestAll } from "@/tools/request";
 import CarCard from "@/components/CarCard";
 
 
@@ -38,7 +38,7 @@ export const fetchData = async () => {
 
 
     try {
-        let data = await asyncApiRequest("GET", "/api/cars");
+        let data = await asyncApiRequestAll("/api/cars");
 
         if (data) {
             // Add img property to each car configuration
@@ -6,15 +6,11 @@ export function asyncApiRequest(method, url, requestBody = null, returnPlainText
     const API_BASE_URL = process.env.NEXT_PUBLIC_API_URL;
     const fullUrl = API_BASE_URL + url;
     let body = null;
-    let headers = {};
+    let headers = getAuthorizationHeaders();
     if (method.toLowerCase() !== "get" && requestBody) {
         headers["Content-Type"] = "application/json";
         body = JSON.stringify(requestBody);
     }
-    const jwtToken = getCookie("jwt");
-    if (jwtToken) {
-        headers["Authorization"] = "Bearer " + jwtToken;
-    }
 
     return fetch(fullUrl, {
         method: method,
@@ -33,6 +29,45 @@ export function asyncApiRequest(method, url, requestBody = null, returnPlainText
 
 }
 
+/**
+ * Gets all items of a paged list. List endpoints return one page at a time, with the URL of the
+ * next page in a Link header with relation type "next", so the pages are requested until there
+ * is no next page.
+ *
+ * @param url The URL of the list, relative to the API base URL
+ * @returns {Promise<Array>} The items of all pages
+ */
+export async function asyncApiRequestAll(url) {
+    const API_BASE_URL = process.env.NEXT_PUBLIC_API_URL;
+    let nextUrl = API_BASE_URL + url;
+    let items = [];
+    while (nextUrl) {
+        const response = await fetch(nextUrl, {
+            method: "GET",
+            mode: "cors",
+            headers: getAuthorizationHeaders(),
+        }).then(handleErrors);
+        const text = await response.text();
+        items = items.concat(text ? JSON.parse(text) : []);
+        nextUrl = getNextPageUrl(response.headers.get("Link"), nextUrl);
+    }
+    return items;
+}
+
+function getAuthorizationHeaders() {
+    let headers = {};
+    const jwtToken = getCookie("jwt");
+    if (jwtToken) {
+        headers["Authorization"] = "Bearer " + jwtToken;
+    }
+    return headers;
+}
+
+function getNextPageUrl(linkHeader, currentUrl) {
+    const match = linkHeader ? linkHeader.match(/<([^>]*)>\s*;\s*rel="next"/) : null;
+    return match ? new URL(match[1], currentUrl).toString() : null;
+}
+
 async function handleErrors(response) {
     if (!response.ok) {
         const responseText = await response.text();